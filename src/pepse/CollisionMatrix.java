@@ -0,0 +1,122 @@
+package pepse;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.LayerManager;
+
+/**
+ * An explicit collision matrix over the layers of the game.
+ * <p>
+ *     Every pair of the game's layers is disabled, except for the pairs that are explicitly allowed,
+ *     so the engine's broad phase only tests the pairs the game actually reacts to. Layers that are
+ *     not listed are left at the engine's defaults, so the matrix should list every layer in use.
+ * </p>
+ * <p>
+ *     The matrix can also count the candidate pairs of a frame, i.e. the pairs of objects in
+ *     colliding layers that the broad phase may test. Counting the same objects with another matrix,
+ *     e.g. one of the layer pairs the engine collided before, compares the two configurations.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+class CollisionMatrix {
+
+    // Private final fields
+    private final int[] layers; /* The layers of the matrix */
+    private final boolean[][] isAllowed; /* Whether each pair of layers collides, by layer index */
+    private final long[] layerSizes; /* The number of objects in each layer, reused by every count */
+
+    // Private fields
+    private long candidatePairs; /* The candidate pairs at the last count */
+
+    /**
+     * Constructs a new CollisionMatrix, in which no pair of layers collides.
+     *
+     * @param layers The layers of the game.
+     */
+    CollisionMatrix(int... layers) {
+        this.layers = layers.clone();
+        this.isAllowed = new boolean[layers.length][layers.length];
+        this.layerSizes = new long[layers.length];
+    }
+
+    /**
+     * Returns the index of a layer in the matrix.
+     *
+     * @param layer The layer.
+     * @return The index of the layer.
+     * @throws IllegalArgumentException If the layer is not a layer of the matrix.
+     */
+    private int indexOf(int layer) {
+        for (int i = 0; i < layers.length; i++) {
+            if (layers[i] == layer) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Layer " + layer + " is not in the collision matrix");
+    }
+
+    /**
+     * Allows a pair of layers to collide.
+     *
+     * @param layerA A layer of the matrix.
+     * @param layerB A layer of the matrix, possibly the same one.
+     * @return This matrix, so pairs can be chained.
+     */
+    CollisionMatrix allow(int layerA, int layerB) {
+        int a = indexOf(layerA), b = indexOf(layerB);
+        isAllowed[a][b] = true;
+        isAllowed[b][a] = true;
+        return this;
+    }
+
+    /**
+     * Applies the matrix to the engine's layers: every pair of the matrix's layers
+     * collides if and only if it was allowed.
+     *
+     * @param layerManager The layers of the game's objects.
+     */
+    void applyTo(LayerManager layerManager) {
+        for (int a = 0; a < layers.length; a++) {
+            for (int b = a; b < layers.length; b++) {
+                layerManager.shouldLayersCollide(layers[a], layers[b], isAllowed[a][b]);
+            }
+        }
+    }
+
+    /**
+     * Counts the candidate pairs of the current objects: for every colliding pair of different layers,
+     * the product of their sizes, and for every colliding layer, the pairs within it.
+     * The result is read with {@link #getCandidatePairs()}.
+     *
+     * @param gameObjects The game objects of the game.
+     */
+    void count(GameObjectCollection gameObjects) {
+        for (int i = 0; i < layers.length; i++) {
+            long size = 0;
+            for (GameObject ignored : gameObjects.objectsInLayer(layers[i])) {
+                size++;
+            }
+            layerSizes[i] = size;
+        }
+        candidatePairs = 0;
+        for (int a = 0; a < layers.length; a++) {
+            for (int b = a; b < layers.length; b++) {
+                if (isAllowed[a][b]) {
+                    candidatePairs += a == b ?
+                            layerSizes[a] * (layerSizes[a] - 1) / 2 : layerSizes[a] * layerSizes[b];
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the candidate pairs of the colliding layers, at the last count.
+     *
+     * @return The number of candidate pairs.
+     */
+    long getCandidatePairs() {
+        return candidatePairs;
+    }
+}
@@ -0,0 +1,89 @@
+package pepse;
+
+import danogl.collisions.GameObjectCollection;
+import pepse.util.TagInterest;
+
+/**
+ * Periodically reports the collision pairs tested per frame.
+ * <p>
+ *     Every frame, the candidate pairs of the collision matrix are counted, along with the candidate pairs
+ *     of a baseline matrix over the same objects: the layer pairs the engine collided before the matrix.
+ *     Every reporting interval, a line with their averages per frame is printed to the standard output,
+ *     along with the average number of pairs that reached a {@link TagInterest} check per frame,
+ *     and of those it accepted.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+class CollisionReport {
+
+    // Private constants
+    /* The format of a report line */
+    private static final String REPORT_FORMAT =
+            "collisionPairsPerFrame candidates=%.0f baseline=%.0f tagTests=%.1f tagMatches=%.1f%n";
+
+    // Private final fields
+    private final float reportInterval; /* The time between reports, in seconds */
+    private final CollisionMatrix matrix; /* The collision matrix of the game */
+    private final CollisionMatrix baseline; /* The layer pairs that collided before the matrix */
+    private final GameObjectCollection gameObjects; /* The game objects of the game */
+
+    // Private fields
+    private float elapsed; /* The time accumulated since the last report, in seconds */
+    private int frames; /* The number of frames since the last report */
+    private long candidatePairs; /* The candidate pairs since the last report */
+    private long baselinePairs; /* The candidate pairs of the baseline since the last report */
+    private long tagTestsAtReport; /* The total tag tests at the last report */
+    private long tagMatchesAtReport; /* The total tag matches at the last report */
+
+    /**
+     * Constructs a new CollisionReport.
+     *
+     * @param reportInterval The time between reports, in seconds.
+     * @param matrix The collision matrix of the game.
+     * @param baseline The layer pairs that collided before the matrix, which are only counted.
+     * @param gameObjects The game objects of the game.
+     */
+    CollisionReport(
+            float reportInterval, CollisionMatrix matrix, CollisionMatrix baseline,
+            GameObjectCollection gameObjects
+    ) {
+        this.reportInterval = reportInterval;
+        this.matrix = matrix;
+        this.baseline = baseline;
+        this.gameObjects = gameObjects;
+        this.tagTestsAtReport = TagInterest.getTotalTests();
+        this.tagMatchesAtReport = TagInterest.getTotalMatches();
+    }
+
+    /**
+     * Counts the pairs of a frame, and prints a report once the reporting interval elapsed.
+     *
+     * @param frameDeltaTime The duration of the frame in seconds.
+     */
+    void record(float frameDeltaTime) {
+        matrix.count(gameObjects);
+        candidatePairs += matrix.getCandidatePairs();
+        baseline.count(gameObjects);
+        baselinePairs += baseline.getCandidatePairs();
+        elapsed += frameDeltaTime;
+        frames++;
+        if (elapsed < reportInterval) {
+            return;
+        }
+        long tagTests = TagInterest.getTotalTests();
+        long tagMatches = TagInterest.getTotalMatches();
+        System.out.printf(
+                REPORT_FORMAT, (double) candidatePairs / frames, (double) baselinePairs / frames,
+                (double) (tagTests - tagTestsAtReport) / frames,
+                (double) (tagMatches - tagMatchesAtReport) / frames
+        );
+        tagTestsAtReport = tagTests;
+        tagMatchesAtReport = tagMatches;
+        elapsed = 0;
+        frames = 0;
+        candidatePairs = 0;
+        baselinePairs = 0;
+    }
+}
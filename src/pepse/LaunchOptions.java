@@ -0,0 +1,150 @@
+package pepse;
+
+import java.util.function.Function;
+
+/**
+ * The options the game is launched with, parsed from the command line.
+ * <ul>
+ *     <li>{@code --crowd <N>}: starts the crowd stress mode with N autonomous walkers.</li>
+ *     <li>
+ *         {@code --simulate <hours>}: runs the world headless and as fast as possible,
+ *         until the given number of simulated hours passed, and then closes the game.
+ *     </li>
+ *     <li>
+ *         {@code --soak}: an autopilot walks the avatar back and forth across a wide span,
+ *         and the game is monitored for leaks. Usually combined with {@code --simulate}.
+ *     </li>
+ *     <li>
+ *         {@code --allocation-check}: the allocation regression check. Implies {@code --soak},
+ *         in a fixed world (the same seed on every run): while the autopilot walks the avatar,
+ *         the heap allocated by the game's own per-frame work is measured for a fixed number of frames,
+ *         and the game exits with a failure status if it exceeds the ceiling committed in
+ *         {@link pepse.util.AllocationMonitor}, or closes normally otherwise.
+ *     </li>
+ *     <li>
+ *         {@code --resume}: resumes the game from the last saved snapshot, instead of a new game.
+ *         The spawn area is created from the chunks saved in the snapshot, without generating them.
+ *         Starts a new game if there is no snapshot that can be read.
+ *     </li>
+ *     <li>
+ *         {@code --collision-stats}: periodically reports the collision pairs tested per frame,
+ *         with and without the collision matrix.
+ *     </li>
+ *     <li>
+ *         {@code --baked <file>}: streams the world from a file baked by {@link pepse.world.gen.WorldBaker},
+ *         and generates it live only outside the baked range. A new game takes the baked world's seed.
+ *     </li>
+ *     <li>
+ *         {@code --jfr}: emits the game's custom Flight Recorder events, to be recorded by a JVM
+ *         started with {@code -XX:StartFlightRecording}.
+ *     </li>
+ * </ul>
+ *
+ * @param crowdSize The number of walkers in the crowd stress mode, 0 to disable it.
+ * @param simulatedHours The number of hours to simulate headless, 0 to play normally.
+ * @param isSoak Whether the avatar is driven by an autopilot while the game is monitored for leaks.
+ * @param isAllocationCheck Whether the game runs the allocation regression check.
+ * @param isResume Whether the game is resumed from the last saved snapshot.
+ * @param isCollisionReport Whether the collision pairs tested per frame are reported.
+ * @param isTelemetry Whether the custom Flight Recorder events are emitted.
+ * @param bakedWorldPath The path of the baked world to stream from, or null to generate the world live.
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+record LaunchOptions(
+        int crowdSize, float simulatedHours, boolean isSoak, boolean isAllocationCheck, boolean isResume,
+        boolean isCollisionReport, boolean isTelemetry, String bakedWorldPath
+) {
+
+    /**
+     * The options of a normal game.
+     */
+    static final LaunchOptions DEFAULT = new LaunchOptions(0, 0, false, false, false, false, false, null);
+
+    // Private constants
+    private static final String CROWD_ARGUMENT = "--crowd"; /* Flag for the crowd stress mode */
+    private static final String SIMULATE_ARGUMENT = "--simulate"; /* Flag for the headless simulation */
+    private static final String SOAK_ARGUMENT = "--soak"; /* Flag for the soak test */
+    private static final String ALLOCATION_CHECK_ARGUMENT = "--allocation-check"; /* Flag for the check */
+    private static final String RESUME_ARGUMENT = "--resume"; /* Flag for resuming a saved game */
+    private static final String COLLISION_STATS_ARGUMENT = "--collision-stats"; /* Flag for the report */
+    private static final String JFR_ARGUMENT = "--jfr"; /* Flag for the Flight Recorder events */
+    private static final String BAKED_ARGUMENT = "--baked"; /* Flag for streaming a baked world */
+    /* The format of the message printed when a flag's value is not a number */
+    private static final String INVALID_VALUE_FORMAT = "ignoring %s: '%s' is not a valid number%n";
+
+    /**
+     * Parses the command line arguments. Unknown arguments are ignored,
+     * and so are flags whose value is not a valid number, with a message.
+     *
+     * @param args The command line arguments.
+     * @return The parsed options.
+     */
+    static LaunchOptions parse(String[] args) {
+        int crowdSize = DEFAULT.crowdSize();
+        float simulatedHours = DEFAULT.simulatedHours();
+        boolean isSoak = DEFAULT.isSoak();
+        boolean isAllocationCheck = DEFAULT.isAllocationCheck();
+        boolean isResume = DEFAULT.isResume();
+        boolean isCollisionReport = DEFAULT.isCollisionReport();
+        boolean isTelemetry = DEFAULT.isTelemetry();
+        String bakedWorldPath = DEFAULT.bakedWorldPath();
+        for (int i = 0; i < args.length; i++) {
+            boolean hasValue = i + 1 < args.length;
+            switch (args[i]) {
+                case CROWD_ARGUMENT -> crowdSize = hasValue ?
+                        parseValue(args[i], args[++i], Integer::valueOf, crowdSize) : crowdSize;
+                case SIMULATE_ARGUMENT -> simulatedHours = hasValue ?
+                        parseValue(args[i], args[++i], Float::valueOf, simulatedHours) : simulatedHours;
+                case SOAK_ARGUMENT -> isSoak = true;
+                case ALLOCATION_CHECK_ARGUMENT -> isAllocationCheck = true;
+                case RESUME_ARGUMENT -> isResume = true;
+                case COLLISION_STATS_ARGUMENT -> isCollisionReport = true;
+                case JFR_ARGUMENT -> isTelemetry = true;
+                case BAKED_ARGUMENT -> bakedWorldPath = hasValue ? args[++i] : bakedWorldPath;
+                default -> { } // Not a flag, or an unknown one
+            }
+        }
+        return new LaunchOptions( // The allocation check measures the soak's walk
+                crowdSize, simulatedHours, isSoak || isAllocationCheck, isAllocationCheck, isResume,
+                isCollisionReport, isTelemetry, bakedWorldPath
+        );
+    }
+
+    /**
+     * Parses the numeric value of a flag, keeping the current value if it is not a valid number.
+     *
+     * @param flag The flag, for the message.
+     * @param value The value to parse.
+     * @param parser Parses the value, throwing a NumberFormatException if it is not a valid number.
+     * @param current The current value of the option.
+     * @param <T> The type of the value.
+     * @return The parsed value, or the current value if it is not a valid number.
+     */
+    private static <T> T parseValue(String flag, String value, Function<String, T> parser, T current) {
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            System.err.printf(INVALID_VALUE_FORMAT, flag, value);
+            return current;
+        }
+    }
+
+    /**
+     * Returns whether the world should be simulated headless.
+     *
+     * @return {@code true} if the game runs as a headless simulation, {@code false} otherwise.
+     */
+    boolean isSimulation() {
+        return simulatedHours > 0;
+    }
+
+    /**
+     * Returns whether the world should be streamed from a baked world.
+     *
+     * @return {@code true} if a baked world was given, {@code false} otherwise.
+     */
+    boolean isBaked() {
+        return bakedWorldPath != null;
+    }
+}
@@ -3,24 +3,45 @@ package pepse;
 import danogl.GameManager;
 import danogl.GameObject;
 import danogl.collisions.Layer;
-import danogl.components.CoordinateSpace;
 import danogl.gui.ImageReader;
 import danogl.gui.SoundReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
-import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
 
+import pepse.telemetry.ChunkGenerationEvent;
+import pepse.telemetry.LongFrameEvent;
+import pepse.telemetry.Telemetry;
+import pepse.ui.Hud;
+import pepse.util.AllocationMonitor;
+import pepse.util.FixedTimestep;
+import pepse.util.FrameRateCounter;
+import pepse.util.FrameTimeReport;
+import pepse.util.PhaseTimer;
+import pepse.util.SimulationSpeedReport;
 import pepse.world.*;
-import pepse.world.daynight.Night;
+import pepse.world.daynight.NightShade;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
+import pepse.world.crowd.Crowd;
+import pepse.world.gen.BakedWorld;
+import pepse.world.gen.ChunkData;
+import pepse.world.gen.ChunkSource;
+import pepse.world.gen.TreeData;
+import pepse.world.gen.WorldGenerator;
 import pepse.world.trees.Flora;
+import pepse.world.trees.FruitStateStore;
+import pepse.world.weather.RainParticles;
+import pepse.world.weather.WeatherScheduler;
 
-import java.util.List;
-import java.util.Map;
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Random;
+import java.util.function.ObjIntConsumer;
 
 /**
  * The main class for the game.
@@ -42,26 +63,122 @@ public class PepseGameManager extends GameManager {
     private static final int HALO_LAYER = -150; /* The layer of the sun halo, which is behind the sun */
     private static final int LEAF_LAYER = -50; /* The layer of the leaves */
     private static final int CLOUD_LAYER = -125; /* The layer of the clouds */
+    /* The layer of the terrain blocks, which do not take part in collisions */
+    private static final int TERRAIN_LAYER = -110;
+    private static final int CROWD_LAYER = -25; /* The layer of the crowd walkers, which do not collide */
+    private static final int FRUIT_LAYER = -10; /* The layer of the fruits, only the avatar hits them */
+    /* All the layers in use, from back to front */
+    private static final int[] LAYERS = {
+            Layer.BACKGROUND, HALO_LAYER, CLOUD_LAYER, TERRAIN_LAYER, Layer.STATIC_OBJECTS, LEAF_LAYER,
+            CROWD_LAYER, FRUIT_LAYER, Layer.DEFAULT, Layer.FOREGROUND, Layer.UI
+    };
+    private static final float COLLISION_REPORT_INTERVAL = 5; /* The time between collision reports */
+    private static final float CROWD_SPREAD_IN_WINDOWS = 3; /* How many windows walkers spread to each side */
+    private static final float CROWD_REPORT_INTERVAL = 5; /* The time between frame time reports */
+    /* The wall-clock time a headless simulation frame may spend on simulation steps */
+    private static final long HEADLESS_FRAME_BUDGET_NANOS = 50_000_000;
+    /* The number of headless simulation steps between streaming the world around the avatar */
+    private static final int HEADLESS_STEPS_PER_STREAMING = 30;
+    private static final float HEADLESS_REPORT_INTERVAL = 5; /* Real seconds between speed reports */
+    private static final int SECONDS_IN_HOUR = 3600; /* The number of seconds in an hour */
+    /* How many windows the soak autopilot walks to each side of the spawn point */
+    private static final float SOAK_SPAN_IN_WINDOWS = 20;
+    private static final int CHECK_FAILURE_EXIT_CODE = 1; /* The exit code of a failed soak or check */
+    /* The seed of the allocation check's world, the same on every run so the check is reproducible */
+    private static final int ALLOCATION_CHECK_SEED = 20240601;
+    private static final int RAIN_CAPACITY = 512; /* The maximal number of raindrops alive at once */
+    private static final int MAX_LIVE_CLOUD_BLOCKS = 160; /* Weather budget: live cloud blocks */
+    private static final int MAX_LIVE_RAIN_DROPS = RAIN_CAPACITY; /* Weather budget: live raindrops */
+    private static final int MAX_WEATHER_SPAWNS_PER_FRAME = 48; /* Weather budget: spawns per frame */
     private static final float AVATAR_Y_POS_OFFSET = 100; /* The offset of the avatar from the ground */
     private static final float AVATAR_X_POS_RATIO = 2; /* The ratio of the avatar's x position */
-    private static final float OFFSET = 150; /* The offset for the out of window threshold */
+    private static final float OFFSET = 150; /* The offset for the creation field around the avatar */
+    private static final int CHUNK_WIDTH = Block.SIZE * 16; /* The width of a streamed chunk of the world */
+    /* How far (in chunks) the avatar may walk from x = 0 before the game's coordinates are rebased */
+    private static final int REBASE_DISTANCE_IN_CHUNKS = 128;
+    /* Whether tree leaves are baked into a single canopy image per tree */
+    private static final boolean BAKE_TREE_CANOPIES = true;
+    private static final float SIMULATION_STEPS_PER_SECOND = 60; /* The fixed rate of the simulation */
+    private static final int MAX_SIMULATION_STEPS_PER_FRAME = 5; /* Cap on simulation steps per frame */
+    /* The rendering frame rate cap, independent of the simulation rate. Lower it to save CPU */
+    private static final int TARGET_RENDER_FRAMERATE = 120;
+    private static final int PAUSE_KEY = KeyEvent.VK_P; /* Pauses and resumes the world clock */
+    private static final int FASTER_TIME_KEY = KeyEvent.VK_EQUALS; /* Makes the world time pass faster */
+    private static final int SLOWER_TIME_KEY = KeyEvent.VK_MINUS; /* Makes the world time pass slower */
+    private static final float TIME_SCALE_FACTOR = 2; /* The factor the time scale changes by per key press */
+    private static final float MIN_TIME_SCALE = 1 / 16f; /* The minimal time scale of the world clock */
+    private static final float MAX_TIME_SCALE = 16; /* The maximal time scale of the world clock */
+    private static final int SAVE_KEY = KeyEvent.VK_F5; /* Saves a snapshot of the game */
+    private static final String SAVE_PATH = "pepse.sav"; /* Snapshots are saved to and resumed from it */
+    private static final double NANOS_IN_MILLISECOND = 1e6; /* The number of nanoseconds in a millisecond */
+    /* The format of the save report */
+    private static final String SAVE_REPORT_FORMAT = "saved %d bytes to %s in %.2fms%n";
+    private static final String NEW_STARTUP = "new game startup"; /* Names the startup of a new game */
+    private static final String RESUMED_STARTUP = "resumed game startup"; /* Names a resumed startup */
+    /* The names of the phases of the startup */
+    private static final String SNAPSHOT_PHASE = "snapshot";
+    /* The format of the message printed when there is no saved game to resume */
+    private static final String NO_SNAPSHOT_FORMAT = "cannot resume from %s (%s), starting a new game%n";
+    private static final String TERRAIN_PHASE = "terrain";
+    private static final String ASSETS_PHASE = "assets";
+    private static final String PREGENERATION_PHASE = "pregenerationWait";
+    private static final String CHUNKS_PHASE = "chunks"; /* Creating the spawn area, in the background */
+    /* The format of the warning printed when the baked world does not match the game's world */
+    private static final String BAKED_MISMATCH_FORMAT = "%s was baked for another world, generating live%n";
     private static final String PERCENT = "%"; /* The percent sign */
-    /* The initial energy string */
-    private static final String INITIAL_ENERGY_STRING = Avatar.MAX_ENERGY_VALUE + PERCENT;
+    private static final String FPS_SUFFIX = " FPS"; /* Follows the frame rate readout */
+    private static final String OBJECTS_SUFFIX = " objects"; /* Follows the object count readout */
+    private static final String VISIBLE_OBJECTS_SUFFIX = " drawn"; /* Follows the drawn object readout */
+    private static final float CULLING_MARGIN = Block.SIZE; /* Covers leaves that grow as they sway */
+    private static final String TIME_OF_DAY_FORMAT = "%02d:%02d"; /* The format of the clock readout */
+    private static final int MINUTES_IN_HOUR = 60; /* The number of minutes in an hour */
+    private static final int MINUTES_IN_DAY = 24 * MINUTES_IN_HOUR; /* The number of minutes in a day */
+    private static final float MIDDAY_PHASE_OFFSET = 0.5f; /* Day phase 0 is noon, half a day after 00:00 */
+    private static final int MAX_CACHED_FRAME_RATE = 240; /* The highest frame rate formatted in advance */
+    private static final int MAX_CACHED_OBJECTS = 8192; /* The highest object count formatted in advance */
     private static final String TITLE = "Ghosty PEPSENautics - The Game"; /* The title of the game :) */
-    /* The top left corner of the energy display */
-    private static final Vector2 ENERGY_DISPLAY_TOP_LEFT_CORNER = Vector2.of(10, 20);
+    /* The top left corner of the HUD, where the energy display is */
+    private static final Vector2 HUD_TOP_LEFT_CORNER = Vector2.of(10, 20);
     /* The dimensions of the energy display */
     private static final Vector2 ENERGY_DISPLAY_DIMENSIONS = Vector2.of(50, 50);
+    /* The dimensions of the clock, frame rate and object count readouts */
+    private static final Vector2 CLOCK_DISPLAY_DIMENSIONS = Vector2.of(50, 20);
+    private static final Vector2 FRAME_RATE_DISPLAY_DIMENSIONS = Vector2.of(60, 20);
+    private static final Vector2 OBJECTS_DISPLAY_DIMENSIONS = Vector2.of(100, 20);
+
+    // Private final fields
+    private final LaunchOptions options; /* The options the game was launched with */
 
     // Private fields
     private int seed; /* The seed for the random number generator */
-    private float outOfWindowThreshold; /* The threshold for objects out of the window */
+    private WorldOrigin origin; /* The origin of the game's coordinates within the world */
     private Terrain terrain; /* The terrain of the game */
+    private BakedWorld bakedWorld; /* The baked world the game streams from, or null */
+    private ChunkSource chunkSource; /* The source of the content of the world's chunks */
     private Flora flora; /* The flora of the game */
+    private FruitStateStore fruitStates; /* The states of the fruits, kept across regenerations */
+    private WorldClock clock; /* The clock of the day-night cycle and of timed world events */
+    private UserInputListener inputListener; /* The input listener, used for the clock's keys */
+    private WindowController windowController; /* The window controller, used to end a simulation */
+    private double simulatedSeconds; /* The simulated time so far, in seconds */
+    private SimulationSpeedReport speedReport; /* Reports the speed of a headless simulation */
+    private AutopilotControls autopilot; /* Drives the avatar in a soak, or null */
+    private SoakMonitor soakMonitor; /* Watches the game for leaks in a soak, or null */
+    private CollisionReport collisionReport; /* Reports the collision pairs per frame, or null */
+    private WeatherScheduler weather; /* Spawns and retires clouds and rain */
+    private FixedTimestep simulation; /* Decouples the simulation rate from the render rate */
+    /* The positions of the avatar and the camera before the last simulation step, for interpolation */
+    private Vector2 previousAvatarTopLeft;
+    private Vector2 previousCameraTopLeft;
+    private AvatarAnimations avatarAnimations; /* The animation frames shared by all the characters */
     private Avatar avatar; /* The avatar of the game */
+    private Crowd crowd; /* The walkers of the crowd stress mode, or null if it is disabled */
+    private FrameTimeReport frameTimeReport; /* Reports frame times in the crowd stress mode */
+    private FrameRateCounter frameRateCounter; /* Counts the frame rate for its HUD readout */
     private Vector2 windowDimensions; /* The dimensions of the game window */
-    private List<Integer> layers; /* The layers that objects should be deleted from */
+    private WorldStreamer streamer; /* Creates and removes the chunks of the world around the avatar */
+    private int frameSteps; /* The simulation steps run by the last frame */
+    private LongFrameEvent frameEvent; /* The Flight Recorder event of the current frame, or null */
 
     /**
      * Default constructor for the PepseGameManager.
@@ -71,55 +188,41 @@ public class PepseGameManager extends GameManager {
      * @param title The title of the game.
      */
     public PepseGameManager(String title) {
-        super(title);
+        this(title, LaunchOptions.DEFAULT);
     }
 
     /**
-     * Creates the sky.
+     * Constructs a PepseGameManager with the given launch options, e.g. for the crowd stress mode
+     * or for a headless simulation.
+     *
+     * @param title The title of the game.
+     * @param options The options the game is launched with.
+     *
+     * @see LaunchOptions
      */
-    private void createSky() {
-        GameObject sky = Sky.create(windowDimensions);
-        gameObjects().addGameObject(sky, Layer.BACKGROUND);
+    PepseGameManager(String title, LaunchOptions options) {
+        super(title);
+        this.options = options;
     }
 
     /**
-     * Adds a game object to the game if the location is not taken.
-     * If the location is taken, the object is not added.
-     * @param gameObject The game object to add.
-     * @param layer The layer to add the object to.
-     * @return {@code true} if the object was added, {@code false} otherwise.
+     * Creates the sky, whose color also carries the darkness of the night.
      */
-    private boolean addIfLocationIsNotTaken(GameObject gameObject, int layer) {
-        for (GameObject obj : gameObjects()) {
-            if (obj.getCenter().equals(gameObject.getCenter())) {
-                return false;
-            }
-        }
-        gameObjects().addGameObject(gameObject, layer);
-        return true;
+    private void createSky() {
+        GameObject sky = Sky.create(windowDimensions, clock);
+        gameObjects().addGameObject(sky, Layer.BACKGROUND);
     }
 
     /**
-     * Creates the terrain. The terrain will be created in the range [rangeStart, rangeEnd].
+     * Creates the terrain blocks of a generated chunk.
      *
-     * @param rangeStart The start of the range to create the terrain.
-     * @param rangeEnd The end of the range to create the terrain.
-     */
-    private void createTerrain(int rangeStart, int rangeEnd) {
-        // Create terrain made of blocks based on the method createInRange
-        List<GameObject> blockList = terrain.createInRange(rangeStart, rangeEnd);
-        // Add the blocks that make up the terrain to the static layer.
-        for (GameObject block : blockList) {
-            addIfLocationIsNotTaken(block, Layer.STATIC_OBJECTS);
-        }
-    }
-
-    /**
-     * Creates the night.
+     * @param chunk The generated chunk.
+     * @param addToChunk A function for adding a GameObject to the chunk at a specified layer.
      */
-    private void createNight() {
-        GameObject night = Night.create(windowDimensions, SECONDS_IN_A_DAY_CYCLE);
-        gameObjects().addGameObject(night, Layer.FOREGROUND);
+    private void createTerrain(ChunkData chunk, ObjIntConsumer<GameObject> addToChunk) {
+        // Create terrain made of blocks based on the generated chunk,
+        // on the non-colliding terrain layer.
+        terrain.createBlocks(chunk, addToChunk, TERRAIN_LAYER);
     }
 
     /**
@@ -127,32 +230,41 @@ public class PepseGameManager extends GameManager {
      */
     private void createSunAndHalo() {
         // Create the sun
-        GameObject sun = Sun.create(windowDimensions, SECONDS_IN_A_DAY_CYCLE, terrain::groundHeightAt);
+        GameObject sun = Sun.create(windowDimensions, clock, terrain::groundHeightAt);
         gameObjects().addGameObject(sun, Layer.BACKGROUND);
         // Create its halo
-        GameObject sunHalo = SunHalo.create(sun);
+        GameObject sunHalo = SunHalo.create(sun, clock);
         gameObjects().addGameObject(sunHalo, HALO_LAYER);
     }
 
     /**
-     * Creates the avatar.
+     * Creates the avatar, at its spawn point or where it was when the resumed game was saved.
      * @param inputListener The input listener to use for getting user input.
-     * @param imageReader The image reader to use for loading images.
+     * @param snapshot The snapshot the game is resumed from, or null for a new game.
      */
-    private void createAvatar(UserInputListener inputListener, ImageReader imageReader) {
+    private void createAvatar(UserInputListener inputListener, WorldSnapshot snapshot) {
         // Create the avatar at the middle of the screen
         float avatarXPosition = windowDimensions.x() / AVATAR_X_POS_RATIO;
         // Create the avatar slightly above the ground to prevent creation inside the ground
         float avatarYPosition = terrain.groundHeightAt(avatarXPosition) - AVATAR_Y_POS_OFFSET;
+        Vector2 avatarTopLeft = snapshot != null ?
+                snapshot.avatarTopLeft() : Vector2.of(avatarXPosition, avatarYPosition);
 
-        Avatar avatar = new Avatar(
-                Vector2.of(avatarXPosition, avatarYPosition),
-                inputListener,
-                imageReader
-        );
+        AvatarControls controls = new KeyboardControls(inputListener);
+        if (options.isSoak()) { // Let the autopilot walk the avatar across a wide span around the spawn
+            float span = windowDimensions.x() * SOAK_SPAN_IN_WINDOWS;
+            double spawnX = origin.toWorldX(avatarTopLeft.x());
+            this.autopilot = new AutopilotControls(spawnX - span, spawnX + span);
+            controls = autopilot;
+        }
+        Avatar avatar = new Avatar(avatarTopLeft, controls, avatarAnimations, this::surfaceHeightAt);
+        if (snapshot != null) {
+            avatar.transform().setVelocity(snapshot.avatarVelocity());
+            avatar.setEnergy(snapshot.avatarEnergy());
+        }
         gameObjects().addGameObject(avatar, Layer.DEFAULT);
 
-        // Make the camera follow the avatar
+        // Make the camera follow the avatar, at the same offset from it as from its spawn point
         Vector2 distanceFromCenter = windowDimensions.mult(1 / AVATAR_X_POS_RATIO).add(
                 Vector2.of(-avatarXPosition, -avatarYPosition)
         );
@@ -162,154 +274,550 @@ public class PepseGameManager extends GameManager {
     }
 
     /**
-     * Creates and initializes the energy display UI element in the game.
-     * The energy display dynamically updates to reflect the current energy
-     * level of the avatar.
+     * Creates the HUD: the energy of the avatar, the time of day, the frame rate,
+     * and the numbers of streamed and of rendered streamed objects.
+     * Every readout re-renders only when its value changes.
      */
-    private void createEnergyDisplay() {
-        TextRenderable energyTextRenderable = new TextRenderable(INITIAL_ENERGY_STRING);
-        GameObject energyDisplay = new GameObject(
-                ENERGY_DISPLAY_TOP_LEFT_CORNER, ENERGY_DISPLAY_DIMENSIONS, energyTextRenderable
+    private void createHud() {
+        this.frameRateCounter = new FrameRateCounter();
+        Hud hud = new Hud(HUD_TOP_LEFT_CORNER, gameObjects()::addGameObject, Layer.UI);
+        hud.addWidget(
+                ENERGY_DISPLAY_DIMENSIONS, () -> (int) Math.round(avatar.getEnergy()),
+                energy -> energy + PERCENT, 0, Avatar.MAX_ENERGY_VALUE
         );
-        gameObjects().addGameObject(energyDisplay, Layer.UI);
-
-        energyDisplay.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
-
-        // Add a component to the display such that at update() the energy amount will be updated.
-        energyDisplay.addComponent(
-                _ -> energyTextRenderable.setString(Math.round(avatar.getEnergy()) + PERCENT)
+        hud.addWidget(
+                CLOCK_DISPLAY_DIMENSIONS, this::minuteOfDay, minute -> String.format(
+                        TIME_OF_DAY_FORMAT, minute / MINUTES_IN_HOUR, minute % MINUTES_IN_HOUR
+                ), 0, MINUTES_IN_DAY - 1
+        );
+        hud.addWidget(
+                FRAME_RATE_DISPLAY_DIMENSIONS, frameRateCounter,
+                frameRate -> frameRate + FPS_SUFFIX, 0, MAX_CACHED_FRAME_RATE
+        );
+        hud.addWidget(
+                OBJECTS_DISPLAY_DIMENSIONS, streamer::getLoadedObjects,
+                objects -> objects + OBJECTS_SUFFIX, 0, MAX_CACHED_OBJECTS
+        );
+        hud.addWidget(
+                OBJECTS_DISPLAY_DIMENSIONS, streamer::getVisibleObjects,
+                objects -> objects + VISIBLE_OBJECTS_SUFFIX, 0, MAX_CACHED_OBJECTS
         );
     }
 
+    /**
+     * Returns the time of day of the world clock, in whole minutes since midnight.
+     * @return The minute of the day, in [0, MINUTES_IN_DAY).
+     */
+    private int minuteOfDay() {
+        float phaseSinceMidnight = (clock.getDayPhase() + MIDDAY_PHASE_OFFSET) % 1;
+        return Math.min((int) (phaseSinceMidnight * MINUTES_IN_DAY), MINUTES_IN_DAY - 1);
+    }
+
     /**
      * Creates and initializes the flora objects, such as trees and their associated components
-     * (fruits and leaves) within the specified range of the game world.
+     * (fruits and leaves) of a generated chunk.
      * <p>
      *      Adds them to the appropriate game object layers.
      * </p>
-     * The flora will be created in the range [rangeStart, rangeEnd].
      *
-     * @param rangeStart The start of the range to create the flora.
-     * @param rangeEnd The end of the range to create the flora.
-     */
-    private void createFlora(int rangeStart, int rangeEnd) {
-        // Create a map that maps trunks to its fruits and foliage
-        Map<GameObject, List<GameObject>> trees = flora.createInRange(rangeStart, rangeEnd);
-        // Add each trunk to the game.
-        for (GameObject trunk : trees.keySet()) {
-            if (addIfLocationIsNotTaken(trunk, Layer.STATIC_OBJECTS)) {
-                // For each trunk, add its flora (fruits and foliage) to the game.
-                for (GameObject obj : trees.get(trunk)) {
-                    if (obj.getTag().equals(Flora.FRUIT_TAG)) { // If the object is a fruit
-                        addIfLocationIsNotTaken(obj, Layer.DEFAULT);
-                    } else { // If the object is a leaf
-                        addIfLocationIsNotTaken(obj, LEAF_LAYER);
-                    }
-                }
-            }
-        }
+     * @param chunk The generated chunk.
+     * @param addToChunk A function for adding a GameObject to the chunk at a specified layer.
+     */
+    private void createFlora(ChunkData chunk, ObjIntConsumer<GameObject> addToChunk) {
+        // Trunks block movement, fruits are only hit by the avatar, and leaves do not collide
+        flora.createTrees(chunk, addToChunk, Layer.STATIC_OBJECTS, LEAF_LAYER, FRUIT_LAYER);
     }
 
     /**
-     * Creates and initializes cloud game objects within the game world.
+     * Creates and initializes the weather: the rain particle system and the scheduler that spawns
+     * and retires clouds within the game world.
      * <p>
      *      The created clouds contribute to the atmospheric appearance of the game,
      *      enhancing visual realism and design aesthetics.
      * </p>
      */
-    private void createCloud() {
-        Cloud cloudCreator = new Cloud(gameObjects()::addGameObject, gameObjects()::removeGameObject);
-        // List of blocks that together make up the cloud
-        List<GameObject> cloud = cloudCreator.createInRange(0, (int) windowDimensions.x());
-        // Add each block of the cloud to the game objects
-        for (GameObject cloudBlock : cloud) {
-            gameObjects().addGameObject(cloudBlock, CLOUD_LAYER);
-        }
+    private void createWeather() {
+        // All the raindrops are simulated and rendered by a single particle system
+        RainParticles rain = new RainParticles(windowDimensions, RAIN_CAPACITY);
+        gameObjects().addGameObject(rain, Layer.BACKGROUND);
+        this.weather = new WeatherScheduler(
+                rain, CLOUD_LAYER, (int) windowDimensions.x(),
+                MAX_LIVE_CLOUD_BLOCKS, MAX_LIVE_RAIN_DROPS, MAX_WEATHER_SPAWNS_PER_FRAME,
+                gameObjects()::addGameObject, gameObjects()::removeGameObject
+        );
         // Add the jump component (pouring rain) for the avatar to activate upon jumping
-        avatar.addOnJumpComponent(cloudCreator.pourRain());
+        avatar.addOnJumpComponent(weather.pourRain());
+    }
+
+    /**
+     * Returns the height of the terrain's surface at the given x-coordinate.
+     * @param x The x-coordinate.
+     * @return The y-coordinate of the top of the terrain's surface.
+     */
+    private double surfaceHeightAt(double x) {
+        return terrain.surfaceHeightAt((float) x);
+    }
+
+    /**
+     * Creates the walkers of the crowd stress mode around the avatar, and the frame time report.
+     * The walkers are added to a layer that does not collide with anything,
+     * and that is not evicted when out of screen, so they keep walking across the streamed world.
+     */
+    private void createCrowd() {
+        this.crowd = new Crowd(
+                options.crowdSize(), avatar.getCenter().x(), windowDimensions.x() * CROWD_SPREAD_IN_WINDOWS,
+                avatarAnimations, this::surfaceHeightAt, seed
+        );
+        // The collision matrix keeps the crowd's layer out of collisions
+        crowd.addTo(gameObjects()::addGameObject, CROWD_LAYER);
+        // The actors are the walkers and the avatar
+        this.frameTimeReport = new FrameTimeReport(CROWD_REPORT_INTERVAL, () -> crowd.size() + 1);
+    }
+
+    /**
+     * Creates the source of the content of the world's chunks: the baked world, if the game streams from one
+     * that was baked for this world, falling back to the live generator outside of its range.
+     *
+     * @param live The live generator of the world.
+     * @return The source of the chunks.
+     */
+    private ChunkSource createChunkSource(WorldGenerator live) {
+        if (bakedWorld == null) {
+            return live;
+        }
+        if (!bakedWorld.isBakedFor(live)) { // e.g. baked for a window of another height
+            System.err.printf(BAKED_MISMATCH_FORMAT, options.bakedWorldPath());
+            return live;
+        }
+        return bakedWorld.over(live);
     }
 
     /**
      * Initializes the game objects.
+     * <p>
+     *     The world around the avatar's starting point is pre-generated in parallel, in the background,
+     *     while the rest of the objects are created and their assets are loaded. The pre-generated chunks
+     *     are then added at once, so the first frame finds the whole load radius already streamed.
+     *     A resumed game creates them from the content saved in its snapshot, rather than generating it.
+     * </p>
      *
      * @param inputListener The input listener to use for getting user input.
-     * @param imageReader The image reader to use for loading images.
+     * @param snapshot The snapshot the game is resumed from, or null for a new game.
+     * @param startup Times the phases of the startup.
      *
      * @see #createSky()
-     * @see #createNight()
      * @see #createSunAndHalo()
-     * @see #createAvatar(UserInputListener, ImageReader)
-     * @see #createEnergyDisplay()
-     * @see #createCloud()
+     * @see #createAvatar(UserInputListener, WorldSnapshot)
+     * @see #createHud()
+     * @see #createWeather()
+     * @see #createCrowd()
      */
-    private void initGameObjects(UserInputListener inputListener, ImageReader imageReader) {
-        this.terrain = new Terrain(windowDimensions, seed); // create terrain
+    private void initGameObjects(
+            UserInputListener inputListener, WorldSnapshot snapshot, PhaseTimer startup
+    ) {
+        this.clock = new WorldClock(SECONDS_IN_A_DAY_CYCLE); // create the clock all timed systems follow
+        clock.addPhaseListener(NightShade::setPhase); // The scene's palettes follow the darkness of the night
+        // The game's coordinates start at the world's x = 0, or where they were when the game was saved
+        this.origin = new WorldOrigin(snapshot != null ? snapshot.originColumn() : 0);
+        this.terrain = new Terrain(windowDimensions, seed, origin); // create terrain
+        this.chunkSource = createChunkSource(new WorldGenerator(terrain.getHeightField(), seed));
+        // Create the flora, along with the store that remembers which fruits were eaten
+        this.fruitStates = new FruitStateStore(clock);
+        if (snapshot != null) { // Restore what generation depends on, before the world is generated
+            snapshot.restoreWorld(clock, fruitStates);
+        }
+        this.flora = new Flora(
+                energy -> avatar.addEnergy(energy), SECONDS_IN_A_DAY_CYCLE, fruitStates, BAKE_TREE_CANOPIES,
+                origin
+        );
+        this.streamer = new WorldStreamer(
+                CHUNK_WIDTH, this::generateChunk,
+                gameObjects()::addGameObject, gameObjects()::removeGameObject,
+                layer -> layer != FRUIT_LAYER // Fruits hide and show themselves as they are eaten
+        );
+        // Generate the spawn area in the background, while the rest of the game is created
+        float avatarStartX = snapshot != null ?
+                snapshot.avatarTopLeft().x() : windowDimensions.x() / AVATAR_X_POS_RATIO;
+        if (snapshot != null) { // Restore the saved chunks, rather than generate them again
+            ChunkSource savedChunks = snapshot.chunksOver(chunkSource);
+            streamer.startPreload(
+                    avatarStartX, loadRadius(),
+                    (rangeStart, rangeEnd, addToChunk) ->
+                            createChunk(savedChunks, rangeStart, rangeEnd, addToChunk)
+            );
+        } else {
+            streamer.startPreload(avatarStartX, loadRadius());
+        }
+        startup.endPhase(TERRAIN_PHASE);
+
         createSky(); // Create the sky
-        createNight(); // Create the night
         createSunAndHalo(); // Create the sun and its halo
-        createAvatar(inputListener, imageReader); // create the avatar
-        // Create the flora
-        this.flora = new Flora(terrain::groundHeightAt, avatar::addEnergy, SECONDS_IN_A_DAY_CYCLE, seed);
-        createEnergyDisplay(); // create energy display
-        createCloud(); // create the cloud
+        // Load the avatar's frames once, to be shared by every avatar-like character
+        this.avatarAnimations = AvatarAnimations.load();
+        createAvatar(inputListener, snapshot); // create the avatar
+        createHud(); // create the energy display and the other readouts
+        createWeather(); // create the clouds and rain
+        if (snapshot != null) {
+            snapshot.restoreWeather(weather);
+        }
+        if (options.crowdSize() > 0) {
+            createCrowd(); // create the walkers of the crowd stress mode
+        }
+        startup.endPhase(ASSETS_PHASE);
+
+        streamer.finishPreload(); // Wait for the rest of the spawn area, and add it to the game
+        startup.endPhase(PREGENERATION_PHASE);
+        startup.addBackgroundPhase(CHUNKS_PHASE, streamer.getPreloadNanos());
+    }
+
+    /**
+     * Generates the content of a single chunk of the world, and creates its terrain and flora.
+     *
+     * @param rangeStart The start of the chunk.
+     * @param rangeEnd The end of the chunk.
+     * @param addToChunk A function for adding a GameObject to the chunk at a specified layer.
+     * @return The generated content of the chunk.
+     */
+    private ChunkData generateChunk(int rangeStart, int rangeEnd, ObjIntConsumer<GameObject> addToChunk) {
+        return createChunk(chunkSource, rangeStart, rangeEnd, addToChunk);
     }
 
     /**
-     * Checks if a game object is out of the screen.
-     * @param gameObject The game object to check.
-     * @return {@code true} if the game object is out of the screen, {@code false} otherwise.
+     * Reads the content of a single chunk of the world from a source, and creates its terrain and flora.
+     *
+     * @param source The source of the chunk's content.
+     * @param rangeStart The start of the chunk.
+     * @param rangeEnd The end of the chunk.
+     * @param addToChunk A function for adding a GameObject to the chunk at a specified layer.
+     * @return The content of the chunk.
      */
-    private boolean isOutOfScreen(GameObject gameObject) {
-        return Math.abs(gameObject.getCenter().x() - avatar.getCenter().x()) > outOfWindowThreshold;
+    private ChunkData createChunk(
+            ChunkSource source, int rangeStart, int rangeEnd, ObjIntConsumer<GameObject> addToChunk
+    ) {
+        // The chunk is generated at its true place in the world, and placed relative to the origin
+        int firstColumn = Math.toIntExact(origin.getColumn() + Math.floorDiv(rangeStart, Block.SIZE));
+        int endColumn = Math.toIntExact(origin.getColumn() + Math.floorDiv(rangeEnd, Block.SIZE));
+        if (!Telemetry.isEnabled()) {
+            ChunkData chunk = source.generate(firstColumn, endColumn);
+            createTerrain(chunk, addToChunk);
+            createFlora(chunk, addToChunk);
+            return chunk;
+        }
+        ChunkGenerationEvent event = new ChunkGenerationEvent();
+        event.begin();
+        ChunkData chunk = source.generate(firstColumn, endColumn);
+        ObjIntConsumer<GameObject> countingAddToChunk = (gameObject, layer) -> {
+            event.objects++;
+            addToChunk.accept(gameObject, layer);
+        };
+        createTerrain(chunk, countingAddToChunk);
+        createFlora(chunk, countingAddToChunk);
+        event.firstColumn = firstColumn;
+        event.endColumn = endColumn;
+        event.blocks = chunk.columnCount() * WorldGenerator.TERRAIN_DEPTH;
+        event.trees = chunk.trees().size();
+        for (TreeData tree : chunk.trees()) {
+            event.leaves += Long.bitCount(tree.leafMask());
+            event.fruits += Long.bitCount(tree.fruitMask());
+        }
+        event.commit();
+        return chunk;
     }
 
     /**
-     * Handles out of screen objects.
-     * If an object is out of the screen, it is removed from the game.
-     * The object is removed from the first layer it is found in.
+     * Returns the distance from the avatar within which chunks of the world are loaded.
+     * @return Half a window, and an offset.
      */
-    private void handleOutOfScreenObjects() {
-        for (GameObject gameObject : gameObjects()) {
-            if (isOutOfScreen(gameObject)) {
-                // Try to remove the object from each layer (will do nothing if the layer is wrong)
-                for (int layer : layers) {
-                    if (gameObjects().removeGameObject(gameObject, layer)) {
-                        // If the object was removed, break out of the loop for better performance
-                        break;
-                    }
-                }
-            }
+    private float loadRadius() {
+        return windowDimensions.x() / AVATAR_X_POS_RATIO + OFFSET;
+    }
+
+    /**
+     * Rebases the game's coordinates once the avatar walked far from x = 0, so positions stay precise.
+     * <p>
+     *     The origin moves by whole chunks, to the chunk of the avatar, and everything placed in world
+     *     coordinates is shifted back by as much: the streamed chunks, the avatar, the walkers,
+     *     the camera and the interpolation state. Objects in camera coordinates, such as the sky, the sun,
+     *     the clouds, the rain and the HUD, are not affected.
+     * </p>
+     */
+    private void rebaseIfFar() {
+        float avatarX = avatar.getTopLeftCorner().x();
+        if (Math.abs(avatarX) < REBASE_DISTANCE_IN_CHUNKS * CHUNK_WIDTH) {
+            return;
+        }
+        int chunkShift = (int) Math.floor(avatarX / CHUNK_WIDTH);
+        origin.shift((long) chunkShift * (CHUNK_WIDTH / Block.SIZE));
+        streamer.rebase(chunkShift);
+        Vector2 delta = Vector2.of(-(float) chunkShift * CHUNK_WIDTH, 0);
+        avatar.setTopLeftCorner(avatar.getTopLeftCorner().add(delta));
+        camera().setTopLeftCorner(camera().getTopLeftCorner().add(delta));
+        if (previousAvatarTopLeft != null) {
+            previousAvatarTopLeft = previousAvatarTopLeft.add(delta);
+            previousCameraTopLeft = previousCameraTopLeft.add(delta);
+        }
+        if (crowd != null) {
+            crowd.shift(delta.x());
         }
     }
 
     /**
-     * Creates objects in the screen.
-     * Objects are created in the screen based on the avatar's position.
-     * The objects are created in the range [avatarX - creationField, avatarX + creationField].
+     * Streams the world around the avatar: chunks within half a window (and an offset) of the avatar
+     * are created, and chunks farther than a window from it are removed.
+     * The game's coordinates are rebased first, if the avatar walked far enough.
      */
-    private void createObjectsInScreen() {
-        int avatarX = (int) avatar.getCenter().x();
-        int creationField = (int) (windowDimensions.x() / AVATAR_X_POS_RATIO + OFFSET);
-        int rangeStart = avatarX - creationField;
-        int rangeEnd = avatarX + creationField;
-        // Create terrain and flora in the given range
-        createTerrain(rangeStart, rangeEnd);
-        createFlora(rangeStart, rangeEnd);
+    private void streamWorld() {
+        rebaseIfFar();
+        streamer.update(avatar.getTopLeftCorner().x(), loadRadius(), windowDimensions.x());
+    }
+
+    /**
+     * Handles the keys of the world clock: pausing and resuming it, and making time pass faster or slower.
+     */
+    private void handleClockKeys() {
+        if (inputListener.wasKeyPressedThisFrame(PAUSE_KEY)) {
+            clock.setPaused(!clock.isPaused());
+        }
+        if (inputListener.wasKeyPressedThisFrame(FASTER_TIME_KEY)) {
+            clock.setTimeScale(Math.min(MAX_TIME_SCALE, clock.getTimeScale() * TIME_SCALE_FACTOR));
+        }
+        if (inputListener.wasKeyPressedThisFrame(SLOWER_TIME_KEY)) {
+            clock.setTimeScale(Math.max(MIN_TIME_SCALE, clock.getTimeScale() / TIME_SCALE_FACTOR));
+        }
+    }
+
+    /**
+     * Reads the saved snapshot to resume the game from.
+     * A missing or unreadable save does not end the game: a new game is started instead.
+     *
+     * @return The saved snapshot, or null if there is none that can be read.
+     */
+    private static WorldSnapshot readSnapshot() {
+        Path path = Path.of(SAVE_PATH);
+        if (!Files.exists(path)) {
+            System.out.printf(NO_SNAPSHOT_FORMAT, SAVE_PATH, "no saved game");
+            return null;
+        }
+        try {
+            return WorldSnapshot.read(path);
+        } catch (UncheckedIOException e) {
+            System.out.printf(NO_SNAPSHOT_FORMAT, SAVE_PATH, e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Handles the save key: captures a snapshot of the game and writes it, within the frame.
+     */
+    private void handleSaveKey() {
+        if (inputListener.wasKeyPressedThisFrame(SAVE_KEY)) {
+            long startNanos = System.nanoTime();
+            WorldSnapshot snapshot = WorldSnapshot.capture(
+                    seed, origin, avatar, clock, fruitStates, weather, streamer.loadedContent()
+            );
+            int bytes = snapshot.write(Path.of(SAVE_PATH));
+            double millis = (System.nanoTime() - startNanos) / NANOS_IN_MILLISECOND;
+            System.out.printf(SAVE_REPORT_FORMAT, bytes, SAVE_PATH, millis);
+        }
+    }
+
+    /**
+     * Advances the simulation by a single fixed step.
+     * @param stepLength The length of the step in seconds.
+     */
+    private void simulateStep(float stepLength) {
+        // The weather starts a new spawn budget before the avatar may pour rain in this step
+        weather.update(stepLength);
+        if (crowd != null) { // The walkers' AI decides in one batch, before the walkers act on it
+            crowd.update(stepLength);
+        }
+        if (autopilot != null) {
+            autopilot.steer(origin.toWorldX(avatar.getTopLeftCorner().x()), avatar.getEnergy());
+        }
+        AllocationMonitor.endSection(); // The engine's update of the objects is not the game's own work
+        super.update(stepLength);
+        AllocationMonitor.beginSection();
+        clock.tick(stepLength);
+        simulatedSeconds += stepLength;
+    }
+
+    /**
+     * Samples the game for leaks during a soak, and exits with a failure status if it found one.
+     */
+    private void checkForLeaks() {
+        if (soakMonitor != null && soakMonitor.sample(simulatedSeconds)) {
+            System.exit(CHECK_FAILURE_EXIT_CODE);
+        }
+    }
+
+    /**
+     * Runs a frame of a headless simulation: advances the simulation in as many fixed steps as fit
+     * in the frame's wall-clock budget, regardless of the frame's duration,
+     * streaming the world around the avatar every few steps.
+     * Once the requested number of hours was simulated, the speed is reported and the game is closed.
+     */
+    private void updateHeadless() {
+        long frameEnd = System.nanoTime() + HEADLESS_FRAME_BUDGET_NANOS;
+        int steps = 0;
+        do {
+            simulateStep(simulation.getStepLength());
+            steps++;
+            if (steps % HEADLESS_STEPS_PER_STREAMING == 0) {
+                streamWorld();
+            }
+        } while (System.nanoTime() < frameEnd);
+        frameSteps = steps;
+        speedReport.record(simulatedSeconds);
+        if (simulatedSeconds >= options.simulatedHours() * SECONDS_IN_HOUR) {
+            speedReport.report(simulatedSeconds);
+            windowController.closeWindow();
+        }
     }
 
     /**
      * Updates the game.
      * The method is responsible for updating the game state and handling game logic.
-     * It is called once per frame.
-     * The method updates the game objects, handles out of screen objects, and creates objects in the screen.
+     * It is called once per rendered frame.
+     * <p>
+     *     The simulation itself runs at a fixed rate, independent of the frame rate:
+     *     the frame's time is accumulated, and the game objects are advanced in as many fixed steps
+     *     as it holds (up to a cap). The world is then streamed around the avatar,
+     *     once per frame in which the simulation advanced.
+     *     The keys of the world clock are handled once per frame, before the simulation advances.
+     * </p>
+     * <p>
+     *     In a headless simulation, the frame's duration is ignored, and the simulation runs as fast
+     *     as possible instead.
+     * </p>
+     * <p>
+     *     In the allocation check, the heap allocated by the game's own work in the frame is measured
+     *     (see {@link AllocationMonitor}), and the game exits with a failure status on a regression,
+     *     or closes once the check passed. The soak's leak check is not part of the frame's work.
+     *     When telemetry is enabled, every frame (from one update to the next, so including its rendering)
+     *     that lasts longer than the threshold of {@link LongFrameEvent} is recorded.
+     * </p>
      * @param deltaTime The time elapsed since the last frame in seconds.
      */
     @Override
     public void update(float deltaTime) {
-        super.update(deltaTime);
-        // Handle deletion and creation of objects in the game as the avatar moves
-        handleOutOfScreenObjects();
-        createObjectsInScreen();
+        if (Telemetry.isEnabled()) {
+            recordFrame();
+        }
+        long workStartNanos = System.nanoTime();
+        AllocationMonitor.beginSection();
+        updateFrame(deltaTime);
+        AllocationMonitor.endSection();
+        if (frameTimeReport != null) { // The frame's own work, without rendering and frame pacing
+            frameTimeReport.record(deltaTime, System.nanoTime() - workStartNanos);
+        }
+        checkForLeaks();
+        if (options.isAllocationCheck()) {
+            checkAllocation();
+        }
+    }
+
+    /**
+     * Ends the frame of the allocation check: exits with a failure status if the allocation regressed,
+     * and closes the game once the check passed.
+     */
+    private void checkAllocation() {
+        if (AllocationMonitor.endFrame()) {
+            System.exit(CHECK_FAILURE_EXIT_CODE);
+        }
+        if (AllocationMonitor.isPassed()) {
+            windowController.closeWindow();
+        }
+    }
+
+    /**
+     * Ends the Flight Recorder event of the previous frame, which is committed only if the frame was long,
+     * and begins the event of the current frame.
+     */
+    private void recordFrame() {
+        if (frameEvent != null) {
+            frameEvent.simulationSteps = frameSteps;
+            frameEvent.loadedObjects = streamer.getLoadedObjects();
+            frameEvent.visibleObjects = streamer.getVisibleObjects();
+            frameEvent.commit();
+        }
+        frameEvent = new LongFrameEvent();
+        frameEvent.begin();
+    }
+
+    /**
+     * Runs a frame: handles the keys, and advances the simulation (either in real time or headless).
+     * @param deltaTime The time elapsed, in seconds, since the last frame.
+     */
+    private void updateFrame(float deltaTime) {
+        frameRateCounter.record(deltaTime);
+        if (collisionReport != null) {
+            collisionReport.record(deltaTime);
+        }
+        handleClockKeys();
+        handleSaveKey();
+        if (options.isSimulation()) {
+            updateHeadless();
+            return;
+        }
+        int steps = simulation.advance(deltaTime);
+        frameSteps = steps;
+        for (int step = 0; step < steps; step++) {
+            if (step == steps - 1) { // Remember the state before the last step, to interpolate from it
+                previousAvatarTopLeft = avatar.getTopLeftCorner();
+                previousCameraTopLeft = camera().getTopLeftCorner();
+            }
+            simulateStep(simulation.getStepLength());
+        }
+        if (steps > 0) {
+            // Handle deletion and creation of chunks of the world as the avatar moves
+            streamWorld();
+        }
+    }
+
+    /**
+     * Linearly interpolates between two positions.
+     * The engine's positions are immutable, so only the interpolated position itself is allocated.
+     * @param from The position at alpha = 0.
+     * @param to The position at alpha = 1.
+     * @param alpha The interpolation factor.
+     * @return The interpolated position.
+     */
+    private static Vector2 interpolate(Vector2 from, Vector2 to, float alpha) {
+        return Vector2.of(from.x() + (to.x() - from.x()) * alpha, from.y() + (to.y() - from.y()) * alpha);
+    }
+
+    /**
+     * Renders the game.
+     * <p>
+     *     Since the simulation runs at a fixed rate, a frame is usually rendered between two simulation
+     *     steps. The avatar and the camera following it are rendered at their interpolated positions,
+     *     so their movement stays smooth regardless of the frame rate.
+     *     Streamed objects outside the rendered view are culled, so they cost no draw calls.
+     *     Nothing is rendered in a headless simulation.
+     * </p>
+     * @param g The graphics to render with.
+     */
+    @Override
+    public void render(Graphics2D g) {
+        if (options.isSimulation()) {
+            return;
+        }
+        if (previousAvatarTopLeft == null) {
+            streamer.cull(camera().getTopLeftCorner(), windowDimensions, CULLING_MARGIN);
+            super.render(g);
+            return;
+        }
+        float alpha = simulation.getInterpolationAlpha();
+        Vector2 avatarTopLeft = avatar.getTopLeftCorner();
+        Vector2 cameraTopLeft = camera().getTopLeftCorner();
+        avatar.setTopLeftCorner(interpolate(previousAvatarTopLeft, avatarTopLeft, alpha));
+        camera().setTopLeftCorner(interpolate(previousCameraTopLeft, cameraTopLeft, alpha));
+        // Only what the interpolated view intersects is rendered
+        streamer.cull(camera().getTopLeftCorner(), windowDimensions, CULLING_MARGIN);
+        super.render(g);
+        // Restore the simulated state
+        avatar.setTopLeftCorner(avatarTopLeft);
+        camera().setTopLeftCorner(cameraTopLeft);
     }
 
     /**
@@ -328,20 +836,74 @@ public class PepseGameManager extends GameManager {
             WindowController windowController) {
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
         this.windowDimensions = windowController.getWindowDimensions();
-        // Since we want objects to be created only when they are in the screen,
-        // we set the out of window threshold to be the width of the window.
-        this.outOfWindowThreshold = windowDimensions.x();
-        // Set a random seed for the game to ensure different game experiences on each run.
-        this.seed = new Random().nextInt();
-        this.layers = List.of(Layer.STATIC_OBJECTS, LEAF_LAYER, Layer.DEFAULT);
-        initGameObjects(inputListener, imageReader);
+        this.inputListener = inputListener;
+        this.windowController = windowController;
+        Telemetry.setEnabled(options.isTelemetry()); // Before the world is generated, possibly in parallel
+        PhaseTimer startup = new PhaseTimer(options.isResume() ? RESUMED_STARTUP : NEW_STARTUP);
+        WorldSnapshot snapshot = options.isResume() ? readSnapshot() : null;
+        this.bakedWorld = options.isBaked() ? BakedWorld.open(Path.of(options.bakedWorldPath())) : null;
+        // Set a random seed for the game to ensure different game experiences on each run,
+        // unless the game is resumed, in which case its world is the saved one,
+        // or streamed from a baked world, in which case the world is the baked one.
+        // The allocation check always walks the same world.
+        if (snapshot != null) {
+            this.seed = snapshot.seed();
+        } else if (bakedWorld != null) {
+            this.seed = bakedWorld.getSeed();
+        } else {
+            this.seed = options.isAllocationCheck() ? ALLOCATION_CHECK_SEED : new Random().nextInt();
+        }
+        // Only the pairs the game reacts to collide: the avatar, on the default layer, with trunks and
+        // fruits. Terrain blocks are only rendered, the avatar resolves its ground contact against the
+        // height field.
+        CollisionMatrix collisionMatrix = new CollisionMatrix(LAYERS)
+                .allow(Layer.DEFAULT, Layer.STATIC_OBJECTS)
+                .allow(Layer.DEFAULT, FRUIT_LAYER);
+        collisionMatrix.applyTo(gameObjects().layers());
+        // Run the simulation at a fixed rate, and let rendering run at its own rate
+        this.simulation = new FixedTimestep(SIMULATION_STEPS_PER_SECOND, MAX_SIMULATION_STEPS_PER_FRAME);
+        windowController.setTargetFramerate(TARGET_RENDER_FRAMERATE);
+        startup.endPhase(SNAPSHOT_PHASE);
+        initGameObjects(inputListener, snapshot, startup);
+        if (options.isSimulation()) {
+            this.speedReport = new SimulationSpeedReport(HEADLESS_REPORT_INTERVAL);
+        }
+        if (options.isSoak()) {
+            this.soakMonitor = new SoakMonitor(gameObjects(), LAYERS);
+        }
+        if (options.isCollisionReport()) {
+            this.collisionReport = new CollisionReport(
+                    COLLISION_REPORT_INTERVAL, collisionMatrix, previousCollisions(), gameObjects()
+            );
+        }
+        if (options.isAllocationCheck()) { // Once the world around the avatar was generated
+            AllocationMonitor.start();
+        }
+        startup.report();
+    }
+
+    /**
+     * Returns the layer pairs the engine collided before the collision matrix, the baseline of the report:
+     * the engine's defaults, i.e. the default layer with itself and with the static objects,
+     * back when the fruits were on the default layer (so with the fruits' layer merged into it).
+     * The terrain and the crowd were already kept out of collisions.
+     *
+     * @return A matrix of the previous layer pairs, to be counted but not applied.
+     */
+    private static CollisionMatrix previousCollisions() {
+        return new CollisionMatrix(LAYERS)
+                .allow(Layer.DEFAULT, Layer.DEFAULT)
+                .allow(Layer.DEFAULT, Layer.STATIC_OBJECTS)
+                .allow(Layer.DEFAULT, FRUIT_LAYER)
+                .allow(FRUIT_LAYER, FRUIT_LAYER)
+                .allow(FRUIT_LAYER, Layer.STATIC_OBJECTS);
     }
 
     /**
      * The main method to start the game.
-     * @param args The command line arguments.
+     * @param args The command line arguments, see {@link LaunchOptions} for the supported ones.
      */
     public static void main(String[] args) {
-        new PepseGameManager(TITLE).run();
+        new PepseGameManager(TITLE, LaunchOptions.parse(args)).run();
     }
 }
@@ -0,0 +1,130 @@
+package pepse;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Watches a long-running game for leaks.
+ * <p>
+ *     Every sampling interval (in simulated time), the monitor counts the live GameObjects of every layer
+ *     and of every tag, and measures the heap retained after a garbage collection.
+ *     During a warm-up period, it records the highest value of every count and of the retained heap
+ *     as their baseline. After the warm-up, a value that exceeds its baseline by more than the allowed
+ *     growth means that it grows without bound, and the soak fails.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+class SoakMonitor {
+
+    // Private constants
+    private static final float SAMPLE_INTERVAL = 60; /* Simulated seconds between samples */
+    private static final float WARM_UP_DURATION = 600; /* Simulated seconds of the warm-up period */
+    /* Allowed growth of a count over its baseline */
+    private static final float MAX_COUNT_GROWTH_FACTOR = 1.5f;
+    private static final int COUNT_GROWTH_SLACK = 50; /* Allowed growth of a count, for small counts */
+    /* Allowed growth of the retained heap over its baseline */
+    private static final float MAX_HEAP_GROWTH_FACTOR = 1.5f;
+    private static final long HEAP_GROWTH_SLACK = 16 << 20; /* Allowed heap growth for small heaps */
+    private static final String LAYER_PREFIX = "layer "; /* Prefix of the keys of layer counts */
+    private static final String TAG_PREFIX = "tag "; /* Prefix of the keys of tag counts */
+    private static final String HEAP_KEY = "retained heap bytes"; /* The key of the retained heap */
+    /* The formats of a sample line and of a failure line */
+    private static final String SAMPLE_FORMAT = "soak t=%.0fs heap=%dKB counts=%s%n";
+    private static final String FAILURE_FORMAT = "SOAK FAILED at t=%.0fs: %s grew from %d to %d%n";
+
+    // Private final fields
+    private final GameObjectCollection gameObjects; /* The game objects of the game */
+    private final int[] layers; /* The layers whose objects are counted */
+    private final Map<String, Long> baselines; /* The highest value of each count during the warm-up */
+    private final MemoryMXBean memory; /* Measures the heap */
+
+    // Private fields
+    private double nextSampleTime; /* The simulated time of the next sample */
+
+    /**
+     * Constructs a new SoakMonitor.
+     *
+     * @param gameObjects The game objects of the game.
+     * @param layers The layers whose objects are counted.
+     */
+    SoakMonitor(GameObjectCollection gameObjects, int... layers) {
+        this.gameObjects = gameObjects;
+        this.layers = layers;
+        this.baselines = new TreeMap<>();
+        this.memory = ManagementFactory.getMemoryMXBean();
+        this.nextSampleTime = SAMPLE_INTERVAL;
+    }
+
+    /**
+     * Counts the live objects of every layer and of every tag, and measures the retained heap.
+     *
+     * @return The counts and the retained heap, by key.
+     */
+    private Map<String, Long> takeSample() {
+        Map<String, Long> sample = new TreeMap<>();
+        for (int layer : layers) {
+            long count = 0;
+            for (GameObject ignored : gameObjects.objectsInLayer(layer)) {
+                count++;
+            }
+            sample.put(LAYER_PREFIX + layer, count);
+        }
+        for (GameObject gameObject : gameObjects) {
+            sample.merge(TAG_PREFIX + gameObject.getTag(), 1L, Long::sum);
+        }
+        System.gc(); // Only what survives a collection is retained
+        sample.put(HEAP_KEY, memory.getHeapMemoryUsage().getUsed());
+        return sample;
+    }
+
+    /**
+     * Returns the highest value allowed for a key after the warm-up.
+     *
+     * @param key The key of the value.
+     * @param baseline The baseline of the value.
+     * @return The highest allowed value.
+     */
+    private static long allowedValue(String key, long baseline) {
+        if (key.equals(HEAP_KEY)) {
+            return (long) (baseline * MAX_HEAP_GROWTH_FACTOR) + HEAP_GROWTH_SLACK;
+        }
+        return (long) (baseline * MAX_COUNT_GROWTH_FACTOR) + COUNT_GROWTH_SLACK;
+    }
+
+    /**
+     * Samples the game if the sampling interval elapsed, and checks the sample against the baselines.
+     *
+     * @param simulatedSeconds The simulated time so far, in seconds.
+     * @return {@code true} if a value grew beyond its allowed growth, i.e. the soak failed,
+     *         {@code false} otherwise.
+     */
+    boolean sample(double simulatedSeconds) {
+        if (simulatedSeconds < nextSampleTime) {
+            return false;
+        }
+        nextSampleTime = simulatedSeconds + SAMPLE_INTERVAL;
+        Map<String, Long> sample = takeSample();
+        System.out.printf(SAMPLE_FORMAT, simulatedSeconds, sample.get(HEAP_KEY) >> 10, sample);
+
+        boolean isWarmingUp = simulatedSeconds < WARM_UP_DURATION;
+        for (Map.Entry<String, Long> entry : sample.entrySet()) {
+            Long baseline = baselines.get(entry.getKey());
+            if (isWarmingUp || baseline == null) { // New keys after the warm-up start their own baseline
+                baselines.merge(entry.getKey(), entry.getValue(), Math::max);
+            } else if (entry.getValue() > allowedValue(entry.getKey(), baseline)) {
+                System.out.printf(
+                        FAILURE_FORMAT, simulatedSeconds, entry.getKey(), baseline, entry.getValue()
+                );
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,287 @@
+package pepse;
+
+import danogl.util.Vector2;
+
+import pepse.world.Avatar;
+import pepse.world.WorldClock;
+import pepse.world.WorldOrigin;
+import pepse.world.gen.ChunkData;
+import pepse.world.gen.ChunkSource;
+import pepse.world.trees.FruitStateStore;
+import pepse.world.weather.Cloud;
+import pepse.world.weather.WeatherScheduler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact binary snapshot of the state of a game, from which it can be resumed.
+ * <p>
+ *     The world is generated deterministically from the seed, chunk by chunk, so the snapshot holds
+ *     what generation cannot reproduce: the seed, the origin of the game's coordinates, the avatar's
+ *     position, velocity and energy, the world clock, the eaten fruits and the live clouds.
+ *     The avatar's position is relative to the origin, so it stays precise.
+ * </p>
+ * <p>
+ *     The snapshot also holds the generated content of the chunks that were loaded when it was taken,
+ *     i.e. the window around the avatar, in the compact layout of a baked world (see {@link ChunkData}).
+ *     A resumed game creates the objects of its spawn area straight from that content, so it skips
+ *     the generation a new game does before its first frame. Chunks farther away are generated
+ *     as they are streamed in, as always. Both startups report the time spent creating the spawn area
+ *     as their {@code chunks} phase, so the gain shows by comparing them.
+ * </p>
+ * <p>
+ *     The file is a big-endian sequence of primitives (see {@link #write(Path)}), prefixed by a magic number
+ *     and a format version. It is written and read with a single file operation.
+ *     Snapshots of the first version, which had no origin, are read with the origin at column 0,
+ *     and snapshots of the first two versions, which had no chunks, are resumed by generating the spawn area.
+ * </p>
+ *
+ * @param seed The seed of the world.
+ * @param originColumn The block column of the world at x = 0 of the game's coordinates.
+ * @param avatarTopLeft The top left corner of the avatar, in the game's coordinates.
+ * @param avatarVelocity The velocity of the avatar.
+ * @param avatarEnergy The energy of the avatar.
+ * @param clockTime The world time, in seconds.
+ * @param clockTimeScale How many world seconds pass in a simulated second.
+ * @param isClockPaused Whether the world time is stopped.
+ * @param eatenFruits The fruits that did not respawn yet.
+ * @param clouds The live clouds.
+ * @param chunks The content of the loaded chunks, from left to right.
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+record WorldSnapshot(
+        int seed, long originColumn, Vector2 avatarTopLeft, Vector2 avatarVelocity, double avatarEnergy,
+        double clockTime, float clockTimeScale, boolean isClockPaused,
+        List<EatenFruit> eatenFruits, List<CloudState> clouds, List<ChunkData> chunks
+) {
+
+    // Private constants
+    private static final int MAGIC = 0x50455053; /* "PEPS", identifies a snapshot file */
+    private static final int FORMAT_VERSION = 3; /* The version of the snapshot format */
+    private static final int CHUNKLESS_FORMAT_VERSION = 2; /* The version of the format without chunks */
+    private static final int UNRELATIVE_FORMAT_VERSION = 1; /* The version of the format without an origin */
+
+    /**
+     * A fruit that was eaten and did not respawn yet.
+     *
+     * @param treeColumn The column (in blocks) of the fruit's tree.
+     * @param cell The index of the fruit's cell in the tree's foliage grid.
+     * @param remainingRespawnTime The time (in seconds) until the fruit respawns.
+     */
+    record EatenFruit(int treeColumn, int cell, float remainingRespawnTime) {}
+
+    /**
+     * A live cloud.
+     *
+     * @param isShapeOne Whether the cloud has the first shape, or the second one.
+     * @param topLeft The top left corner of the cloud, in camera coordinates.
+     * @param isRaining Whether the cloud pours rain continuously.
+     */
+    record CloudState(boolean isShapeOne, Vector2 topLeft, boolean isRaining) {}
+
+    /**
+     * Captures the current state of a game.
+     *
+     * @param seed The seed of the world.
+     * @param origin The origin of the game's coordinates within the world.
+     * @param avatar The avatar.
+     * @param clock The world clock.
+     * @param fruitStates The store of the eaten fruits.
+     * @param weather The scheduler of the clouds.
+     * @param chunks The content of the loaded chunks, from left to right.
+     * @return The snapshot of the game.
+     */
+    static WorldSnapshot capture(
+            int seed, WorldOrigin origin, Avatar avatar, WorldClock clock, FruitStateStore fruitStates,
+            WeatherScheduler weather, List<ChunkData> chunks
+    ) {
+        List<EatenFruit> eatenFruits = new ArrayList<>(fruitStates.size());
+        fruitStates.forEachEaten(
+                (treeColumn, cell, remaining) -> eatenFruits.add(new EatenFruit(treeColumn, cell, remaining))
+        );
+        List<CloudState> clouds = new ArrayList<>(weather.getLiveClouds());
+        for (Cloud cloud : weather.getClouds()) {
+            clouds.add(new CloudState(cloud.isShapeOne(), cloud.getTopLeftCorner(), cloud.isRaining()));
+        }
+        return new WorldSnapshot(
+                seed, origin.getColumn(), avatar.getTopLeftCorner(), avatar.getVelocity(), avatar.getEnergy(),
+                clock.getTime(), clock.getTimeScale(), clock.isPaused(), eatenFruits, clouds, chunks
+        );
+    }
+
+    /**
+     * Writes the snapshot to a file, replacing it if it exists.
+     *
+     * @param path The path of the file.
+     * @return The number of bytes written.
+     * @throws UncheckedIOException If the file cannot be written.
+     */
+    int write(Path path) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(seed);
+            out.writeLong(originColumn);
+            writeVector(out, avatarTopLeft);
+            writeVector(out, avatarVelocity);
+            out.writeDouble(avatarEnergy);
+            out.writeDouble(clockTime);
+            out.writeFloat(clockTimeScale);
+            out.writeBoolean(isClockPaused);
+            out.writeInt(eatenFruits.size());
+            for (EatenFruit fruit : eatenFruits) {
+                out.writeInt(fruit.treeColumn());
+                out.writeByte(fruit.cell());
+                out.writeFloat(fruit.remainingRespawnTime());
+            }
+            out.writeInt(clouds.size());
+            for (CloudState cloud : clouds) {
+                out.writeBoolean(cloud.isShapeOne());
+                writeVector(out, cloud.topLeft());
+                out.writeBoolean(cloud.isRaining());
+            }
+            out.writeInt(chunks.size());
+            for (ChunkData chunk : chunks) {
+                chunk.write(out);
+            }
+            out.flush();
+            Files.write(path, bytes.toByteArray());
+            return bytes.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a snapshot that was written by {@link #write(Path)}.
+     *
+     * @param path The path of the file.
+     * @return The snapshot.
+     * @throws UncheckedIOException If the file cannot be read,
+     *                              or is not a snapshot of a known format version.
+     */
+    static WorldSnapshot read(Path path) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a snapshot");
+            }
+            int version = in.readInt();
+            if (version < UNRELATIVE_FORMAT_VERSION || version > FORMAT_VERSION) {
+                throw new IOException(path + " is not a snapshot of version " + FORMAT_VERSION);
+            }
+            int seed = in.readInt();
+            long originColumn = version >= CHUNKLESS_FORMAT_VERSION ? in.readLong() : 0;
+            Vector2 avatarTopLeft = readVector(in);
+            Vector2 avatarVelocity = readVector(in);
+            double avatarEnergy = in.readDouble();
+            double clockTime = in.readDouble();
+            float clockTimeScale = in.readFloat();
+            boolean isClockPaused = in.readBoolean();
+            int fruitCount = in.readInt();
+            List<EatenFruit> eatenFruits = new ArrayList<>(fruitCount);
+            for (int i = 0; i < fruitCount; i++) {
+                eatenFruits.add(new EatenFruit(in.readInt(), in.readByte(), in.readFloat()));
+            }
+            int cloudCount = in.readInt();
+            List<CloudState> clouds = new ArrayList<>(cloudCount);
+            for (int i = 0; i < cloudCount; i++) {
+                clouds.add(new CloudState(in.readBoolean(), readVector(in), in.readBoolean()));
+            }
+            int chunkCount = version == FORMAT_VERSION ? in.readInt() : 0;
+            List<ChunkData> chunks = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                chunks.add(ChunkData.read(in));
+            }
+            return new WorldSnapshot(
+                    seed, originColumn, avatarTopLeft, avatarVelocity, avatarEnergy,
+                    clockTime, clockTimeScale, isClockPaused, eatenFruits, clouds, chunks
+            );
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Restores the clock and the eaten fruits of the snapshot. Must be called before the world is generated.
+     * The seed and the avatar are restored by the game as it creates the world and the avatar.
+     *
+     * @param clock The world clock.
+     * @param fruitStates The (empty) store of the eaten fruits.
+     */
+    void restoreWorld(WorldClock clock, FruitStateStore fruitStates) {
+        clock.setTime(clockTime);
+        clock.setTimeScale(clockTimeScale);
+        clock.setPaused(isClockPaused);
+        for (EatenFruit fruit : eatenFruits) {
+            fruitStates.markEaten(fruit.treeColumn(), fruit.cell(), fruit.remainingRespawnTime());
+        }
+    }
+
+    /**
+     * Returns a chunk source that serves the saved content of the loaded chunks,
+     * and falls back to the given source for any other range.
+     * The returned source is safe to call concurrently, like the fallback.
+     *
+     * @param fallback The source of the ranges that were not saved, e.g. the live generator.
+     * @return The chunk source.
+     */
+    ChunkSource chunksOver(ChunkSource fallback) {
+        Map<Integer, ChunkData> chunksByFirstColumn = new HashMap<>();
+        for (ChunkData chunk : chunks) {
+            chunksByFirstColumn.put(chunk.firstColumn(), chunk);
+        }
+        return (firstColumn, endColumn) -> {
+            ChunkData chunk = chunksByFirstColumn.get(firstColumn);
+            return chunk != null && chunk.columnCount() == endColumn - firstColumn ?
+                    chunk : fallback.generate(firstColumn, endColumn);
+        };
+    }
+
+    /**
+     * Restores the clouds of the snapshot.
+     *
+     * @param weather The scheduler of the clouds.
+     */
+    void restoreWeather(WeatherScheduler weather) {
+        for (CloudState cloud : clouds) {
+            Vector2 topLeft = cloud.topLeft();
+            weather.restoreCloud(cloud.isShapeOne(), topLeft.x(), topLeft.y(), cloud.isRaining());
+        }
+    }
+
+    /**
+     * Writes a vector as two floats.
+     *
+     * @param out The output to write to.
+     * @param vector The vector.
+     * @throws IOException If the output cannot be written.
+     */
+    private static void writeVector(DataOutputStream out, Vector2 vector) throws IOException {
+        out.writeFloat(vector.x());
+        out.writeFloat(vector.y());
+    }
+
+    /**
+     * Reads a vector written by {@link #writeVector(DataOutputStream, Vector2)}.
+     *
+     * @param in The input to read from.
+     * @return The vector.
+     * @throws IOException If the input cannot be read.
+     */
+    private static Vector2 readVector(DataInputStream in) throws IOException {
+        return Vector2.of(in.readFloat(), in.readFloat());
+    }
+}
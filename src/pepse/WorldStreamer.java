@@ -0,0 +1,563 @@
+package pepse;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.telemetry.ChunkEvictionEvent;
+import pepse.telemetry.Telemetry;
+import pepse.util.AllocationMonitor;
+import pepse.world.gen.ChunkData;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Streams the world around a moving point in fixed-width chunks.
+ * <p>
+ *     The world is split into chunks of a fixed width, aligned to multiples of that width.
+ *     Every chunk is generated exactly once while it is loaded, and all of its objects are evicted
+ *     together once it gets too far. The loaded chunks are always a contiguous run, kept in a deque,
+ *     so loading and evicting only touch its ends, and a frame in which no chunk boundary
+ *     was crossed does no work and allocates nothing.
+ * </p>
+ * <p>
+ *     Evicted chunks are recycled for the chunks loaded next: their lists, arrays and the callback
+ *     that adds objects to them are reused, and only grow until they fit the largest chunk.
+ *     So loading a chunk only allocates its content, i.e. its GameObjects (and their positions)
+ *     and the generated data they are created from, which the engine needs as new objects.
+ * </p>
+ * <p>
+ *     Chunks are loaded within a load radius of the point, and kept until they are farther than
+ *     a (larger) keep radius, so walking back and forth across a boundary does not regenerate a chunk.
+ * </p>
+ * <p>
+ *     The chunks around the starting point may be pre-generated in parallel, at startup, so the first frame
+ *     does not have to generate them. For that, the chunk generator must be safe to call concurrently
+ *     for different chunks. A resumed game pre-creates them from their saved content instead.
+ *     Every loaded chunk keeps the content it was created from, so the loaded window can be saved.
+ * </p>
+ * <p>
+ *     Loaded chunks reach well beyond the screen, so the streamer also culls what is off-screen:
+ *     every chunk knows the bounds of its objects, so a chunk that does not intersect the view
+ *     is hidden as a whole, and only the objects of the chunks that do are tested one by one.
+ *     An object is hidden by detaching its renderable, so it keeps being simulated and collided.
+ *     Culling only does work when the view moved or the loaded chunks changed,
+ *     and it only touches objects whose visibility changed.
+ * </p>
+ * <p>
+ *     When the game's coordinates are rebased (see {@link pepse.world.WorldOrigin}), the loaded chunks
+ *     are shifted by a whole number of chunks, so the chunk grid stays aligned and nothing is regenerated.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+class WorldStreamer {
+
+    /**
+     * Generates the objects of a single chunk.
+     *
+     * @author Noam Kimhi
+     * @author Or Forshmit
+     */
+    @FunctionalInterface
+    interface ChunkGenerator {
+
+        /**
+         * Generates the objects in the range [minX, maxX).
+         * May be called concurrently for different chunks, during a pre-generation.
+         *
+         * @param minX The minimum x-coordinate of the chunk.
+         * @param maxX The x-coordinate right after the chunk.
+         * @param addToChunk A function for adding a GameObject to the chunk at a specified layer.
+         * @return The content the objects were created from, kept while the chunk is loaded.
+         */
+        ChunkData generate(int minX, int maxX, ObjIntConsumer<GameObject> addToChunk);
+    }
+
+    /**
+     * The objects of a loaded chunk, along with the layer each of them was added to,
+     * and the state of their culling.
+     *
+     * @author Noam Kimhi
+     * @author Or Forshmit
+     */
+    private static class Chunk {
+
+        // Private final fields
+        private final List<GameObject> objects = new ArrayList<>(); /* The objects of the chunk */
+        /* Adds an object to the chunk, created once so a recycled chunk is generated without allocating it */
+        private final ObjIntConsumer<GameObject> addObject = this::add;
+
+        // Private fields
+        private ChunkData content; /* The content the objects of the chunk were created from */
+        private int[] layers = new int[0]; /* The layer of each object, with room for more */
+        /* The bounds (left, top, right, bottom) of every object, and their union for the culled objects */
+        private float[] bounds = new float[0];
+        private float left, top, right, bottom;
+        /* The renderable of every hidden object, null for the objects that are shown or never culled */
+        private Renderable[] hiddenRenderables = new Renderable[0];
+        private boolean[] isCulled = new boolean[0]; /* Whether each object may be culled */
+        private int hiddenObjects; /* The number of hidden objects */
+        private boolean isHidden; /* Whether the chunk was hidden as a whole */
+
+        /**
+         * Adds an object to the chunk, growing the layers only if they are full.
+         *
+         * @param gameObject The object to add.
+         * @param layer The layer of the object.
+         */
+        private void add(GameObject gameObject, int layer) {
+            if (objects.size() == layers.length) {
+                layers = Arrays.copyOf(layers, Math.max(MIN_CHUNK_CAPACITY, layers.length * 2));
+            }
+            layers[objects.size()] = layer;
+            objects.add(gameObject);
+        }
+
+        /**
+         * Empties the chunk so it can be generated again, dropping its objects and their hidden renderables.
+         */
+        private void clear() {
+            content = null;
+            objects.clear();
+            Arrays.fill(hiddenRenderables, null);
+            hiddenObjects = 0;
+            isHidden = false;
+        }
+    }
+
+    // Private constants
+    private static final int MIN_CHUNK_CAPACITY = 64; /* The initial room for the objects of a chunk */
+
+    // Private final fields
+    private final int chunkWidth; /* The width of a chunk */
+    private final ChunkGenerator generator; /* Generates the objects of a chunk */
+    /* A function to add a GameObject to the game at a specified layer */
+    private final ObjIntConsumer<GameObject> addToGame;
+    /* A function to remove a GameObject from the game at a specified layer */
+    private final ObjIntConsumer<GameObject> removeFromGame;
+    private final ArrayDeque<Chunk> chunks; /* The loaded chunks, from left to right */
+    private final ArrayDeque<Chunk> spareChunks = new ArrayDeque<>(); /* Evicted chunks, to be recycled */
+    private final IntPredicate isCulledLayer; /* Whether the objects of a layer may be culled */
+    /* The objects removed from each layer by the current eviction pass, when telemetry is enabled */
+    private final Map<Integer, Integer> evictedPerLayer = new TreeMap<>();
+
+    // Private fields
+    private int firstLoadedChunk; /* The index of the leftmost loaded chunk */
+    private int loadedObjects; /* The number of objects in the loaded chunks */
+    private CompletableFuture<List<Chunk>> preloadedChunks; /* The chunks being pre-generated, or null */
+    private int firstPreloadedChunk; /* The index of the leftmost pre-generated chunk */
+    private long preloadNanos; /* The wall-clock duration of the last pre-generation */
+    private int hiddenObjects; /* The number of culled objects in the loaded chunks */
+    private boolean isCullingStale = true; /* Whether the loaded chunks changed since the last culling */
+    private float viewLeft, viewTop; /* The top left corner of the view at the last culling */
+
+    /**
+     * Constructs a new WorldStreamer, with no chunk loaded.
+     *
+     * @param chunkWidth The width of a chunk.
+     * @param generator Generates the objects of a chunk.
+     * @param addToGame A function for adding a GameObject to the game at a specified layer.
+     * @param removeFromGame A function for removing a GameObject from the game at a specified layer.
+     * @param isCulledLayer Whether the objects of a layer may be culled. Objects that change
+     *                      their own renderable must not be culled, since culling replaces it.
+     */
+    WorldStreamer(
+            int chunkWidth, ChunkGenerator generator,
+            ObjIntConsumer<GameObject> addToGame, ObjIntConsumer<GameObject> removeFromGame,
+            IntPredicate isCulledLayer
+    ) {
+        this.chunkWidth = chunkWidth;
+        this.generator = generator;
+        this.addToGame = addToGame;
+        this.removeFromGame = removeFromGame;
+        this.chunks = new ArrayDeque<>();
+        this.isCulledLayer = isCulledLayer;
+    }
+
+    /**
+     * Generates the objects of a chunk, without adding them to the game,
+     * and records their bounds for culling.
+     *
+     * @param chunkIndex The index of the chunk.
+     * @param chunk An empty chunk to generate into, either new or recycled.
+     * @param chunkGenerator Generates the objects of the chunk.
+     * @return The generated chunk.
+     */
+    private Chunk generate(int chunkIndex, Chunk chunk, ChunkGenerator chunkGenerator) {
+        AllocationMonitor.beginContentWork();
+        chunk.content = chunkGenerator.generate(
+                chunkIndex * chunkWidth, (chunkIndex + 1) * chunkWidth, chunk.addObject
+        );
+        AllocationMonitor.endContentWork();
+        int count = chunk.objects.size();
+        if (chunk.isCulled.length < count) { // Only grows until it fits the largest chunk
+            chunk.bounds = new float[count * 4];
+            chunk.hiddenRenderables = new Renderable[count];
+            chunk.isCulled = new boolean[count];
+        }
+        chunk.left = chunk.top = Float.POSITIVE_INFINITY;
+        chunk.right = chunk.bottom = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            Vector2 topLeft = chunk.objects.get(i).getTopLeftCorner();
+            Vector2 dimensions = chunk.objects.get(i).getDimensions();
+            float right = topLeft.x() + dimensions.x();
+            float bottom = topLeft.y() + dimensions.y();
+            chunk.bounds[i * 4] = topLeft.x();
+            chunk.bounds[i * 4 + 1] = topLeft.y();
+            chunk.bounds[i * 4 + 2] = right;
+            chunk.bounds[i * 4 + 3] = bottom;
+            chunk.isCulled[i] = isCulledLayer.test(chunk.layers[i]);
+            if (chunk.isCulled[i]) {
+                chunk.left = Math.min(chunk.left, topLeft.x());
+                chunk.top = Math.min(chunk.top, topLeft.y());
+                chunk.right = Math.max(chunk.right, right);
+                chunk.bottom = Math.max(chunk.bottom, bottom);
+            }
+        }
+        return chunk;
+    }
+
+    /**
+     * Adds the objects of a generated chunk to the game.
+     *
+     * @param chunk The generated chunk.
+     * @return The loaded chunk.
+     */
+    private Chunk attach(Chunk chunk) {
+        AllocationMonitor.beginContentWork();
+        for (int i = 0; i < chunk.objects.size(); i++) {
+            addToGame.accept(chunk.objects.get(i), chunk.layers[i]);
+        }
+        AllocationMonitor.endContentWork();
+        loadedObjects += chunk.objects.size();
+        isCullingStale = true;
+        return chunk;
+    }
+
+    /**
+     * Generates a chunk into a recycled chunk (if there is one), and adds its objects to the game.
+     *
+     * @param chunkIndex The index of the chunk.
+     * @return The loaded chunk.
+     */
+    private Chunk load(int chunkIndex) {
+        Chunk chunk = spareChunks.isEmpty() ? new Chunk() : spareChunks.pop();
+        return attach(generate(chunkIndex, chunk, generator));
+    }
+
+    /**
+     * Starts generating the chunks within the load radius of a point in the background,
+     * fanned out across the cores of the common fork/join pool.
+     * The chunks are added to the game only by {@link #finishPreload()}, on the caller's thread.
+     * Should be called once, before the first {@link #update(float, float, float)}.
+     *
+     * @param centerX The x-coordinate of the point the world will be streamed around.
+     * @param loadRadius The distance from the point within which chunks are loaded.
+     */
+    void startPreload(float centerX, float loadRadius) {
+        startPreload(centerX, loadRadius, generator);
+    }
+
+    /**
+     * Starts creating the chunks within the load radius of a point in the background, like
+     * {@link #startPreload(float, float)}, but with another generator, e.g. one that restores
+     * the saved content of the chunks rather than generating it.
+     * The chunks loaded afterward are generated by the streamer's own generator.
+     *
+     * @param centerX The x-coordinate of the point the world will be streamed around.
+     * @param loadRadius The distance from the point within which chunks are loaded.
+     * @param preloadGenerator Creates the objects of the chunks within the load radius.
+     */
+    void startPreload(float centerX, float loadRadius, ChunkGenerator preloadGenerator) {
+        int firstWanted = chunkAt(centerX - loadRadius);
+        int lastWanted = chunkAt(centerX + loadRadius);
+        firstPreloadedChunk = firstWanted;
+        long startNanos = System.nanoTime();
+        preloadedChunks = CompletableFuture.supplyAsync(() -> {
+            List<Chunk> generated = IntStream.rangeClosed(firstWanted, lastWanted)
+                    .parallel()
+                    .mapToObj(chunkIndex -> generate(chunkIndex, new Chunk(), preloadGenerator))
+                    .toList();
+            preloadNanos = System.nanoTime() - startNanos; // Read after the join, which publishes it
+            return generated;
+        });
+    }
+
+    /**
+     * Returns how long the last pre-generation took to create its chunks, in the background,
+     * regardless of how much of it overlapped other work. Valid after {@link #finishPreload()}.
+     *
+     * @return The wall-clock duration of the pre-generation, in nanoseconds.
+     */
+    long getPreloadNanos() {
+        return preloadNanos;
+    }
+
+    /**
+     * Returns the content of the loaded chunks, e.g. to save it.
+     *
+     * @return The content of every loaded chunk, from left to right.
+     */
+    List<ChunkData> loadedContent() {
+        List<ChunkData> content = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            content.add(chunk.content);
+        }
+        return content;
+    }
+
+    /**
+     * Waits for the pre-generation started by {@link #startPreload(float, float)} to end,
+     * and adds the pre-generated chunks to the game.
+     */
+    void finishPreload() {
+        List<Chunk> generated = preloadedChunks.join();
+        preloadedChunks = null;
+        firstLoadedChunk = firstPreloadedChunk;
+        for (Chunk chunk : generated) {
+            chunks.addLast(attach(chunk));
+        }
+    }
+
+    /**
+     * Removes all the objects of a chunk from the game.
+     *
+     * @param chunk The chunk to evict.
+     */
+    private void evict(Chunk chunk) {
+        AllocationMonitor.beginContentWork();
+        for (int i = 0; i < chunk.objects.size(); i++) {
+            removeFromGame.accept(chunk.objects.get(i), chunk.layers[i]);
+        }
+        AllocationMonitor.endContentWork();
+        loadedObjects -= chunk.objects.size();
+        hiddenObjects -= chunk.hiddenObjects; // Evicted objects are dropped, hidden or not
+    }
+
+    /**
+     * Starts the telemetry event of an eviction pass, unless it was already started by this pass.
+     *
+     * @param eviction The event of the pass, or null if it was not started yet.
+     * @return The event of the pass, or null if telemetry is disabled.
+     */
+    private ChunkEvictionEvent beginEviction(ChunkEvictionEvent eviction) {
+        if (eviction != null || !Telemetry.isEnabled()) {
+            return eviction;
+        }
+        evictedPerLayer.clear();
+        ChunkEvictionEvent event = new ChunkEvictionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Evicts a chunk, accounts for it in the telemetry event of the eviction pass,
+     * and keeps it to be recycled by the next chunk that is loaded.
+     *
+     * @param chunk The chunk to evict.
+     * @param eviction The event of the eviction pass, or null if telemetry is disabled.
+     */
+    private void evict(Chunk chunk, ChunkEvictionEvent eviction) {
+        evict(chunk);
+        if (eviction != null) {
+            eviction.chunks++;
+            eviction.objects += chunk.objects.size();
+            for (int i = 0; i < chunk.objects.size(); i++) {
+                evictedPerLayer.merge(chunk.layers[i], 1, Integer::sum);
+            }
+        }
+        chunk.clear();
+        spareChunks.push(chunk);
+    }
+
+    /**
+     * Ends and commits the telemetry event of an eviction pass, if it was started.
+     *
+     * @param eviction The event of the pass, or null if no chunk was evicted or telemetry is disabled.
+     */
+    private void commitEviction(ChunkEvictionEvent eviction) {
+        if (eviction == null) {
+            return;
+        }
+        StringBuilder perLayer = new StringBuilder();
+        evictedPerLayer.forEach(
+                (layer, count) -> perLayer.append(layer).append('=').append(count).append(' ')
+        );
+        eviction.objectsPerLayer = perLayer.toString().trim();
+        eviction.commit();
+    }
+
+    /**
+     * Returns the index of the chunk containing the given x-coordinate.
+     *
+     * @param x The x-coordinate.
+     * @return The index of the chunk.
+     */
+    private int chunkAt(float x) {
+        return Math.floorDiv((int) Math.floor(x), chunkWidth);
+    }
+
+    /**
+     * Evicts the chunks that are farther than the keep radius from the given point,
+     * and loads the chunks within the load radius that are not loaded yet.
+     *
+     * @param centerX The x-coordinate of the point the world is streamed around.
+     * @param loadRadius The distance from the point within which chunks are loaded.
+     * @param keepRadius The distance from the point beyond which chunks are evicted.
+     *                   Should not be smaller than the load radius.
+     */
+    void update(float centerX, float loadRadius, float keepRadius) {
+        int firstKept = chunkAt(centerX - keepRadius);
+        int lastKept = chunkAt(centerX + keepRadius);
+        ChunkEvictionEvent eviction = null; // Started by the first eviction, if telemetry is enabled
+        while (!chunks.isEmpty() && firstLoadedChunk < firstKept) {
+            eviction = beginEviction(eviction);
+            evict(chunks.pollFirst(), eviction);
+            firstLoadedChunk++;
+        }
+        while (!chunks.isEmpty() && firstLoadedChunk + chunks.size() - 1 > lastKept) {
+            eviction = beginEviction(eviction);
+            evict(chunks.pollLast(), eviction);
+        }
+        commitEviction(eviction);
+
+        int firstWanted = chunkAt(centerX - loadRadius);
+        int lastWanted = chunkAt(centerX + loadRadius);
+        if (chunks.isEmpty()) {
+            firstLoadedChunk = firstWanted;
+            chunks.addLast(load(firstWanted));
+        }
+        while (firstLoadedChunk > firstWanted) {
+            firstLoadedChunk--;
+            chunks.addFirst(load(firstLoadedChunk));
+        }
+        while (firstLoadedChunk + chunks.size() - 1 < lastWanted) {
+            chunks.addLast(load(firstLoadedChunk + chunks.size()));
+        }
+    }
+
+    /**
+     * Shows or hides a single object of a chunk, unless it is already in that state.
+     *
+     * @param chunk The chunk of the object.
+     * @param index The index of the object in the chunk.
+     * @param isVisible Whether the object should be shown.
+     */
+    private void setVisible(Chunk chunk, int index, boolean isVisible) {
+        GameObject gameObject = chunk.objects.get(index);
+        Renderable hidden = chunk.hiddenRenderables[index];
+        if (isVisible && hidden != null) {
+            gameObject.renderer().setRenderable(hidden);
+            chunk.hiddenRenderables[index] = null;
+            chunk.hiddenObjects--;
+            hiddenObjects--;
+        } else if (!isVisible && hidden == null && gameObject.renderer().getRenderable() != null) {
+            chunk.hiddenRenderables[index] = gameObject.renderer().getRenderable();
+            gameObject.renderer().setRenderable(null);
+            chunk.hiddenObjects++;
+            hiddenObjects++;
+        }
+    }
+
+    /**
+     * Hides the culled objects of the loaded chunks that do not intersect the view, and shows those that do.
+     * Should be called right before rendering. Does nothing if neither the view nor the loaded chunks
+     * changed since the last call.
+     *
+     * @param viewTopLeft The top left corner of the view, in world coordinates.
+     * @param viewDimensions The dimensions of the view.
+     * @param margin How far outside the view objects are still shown, e.g. for objects that grow.
+     */
+    void cull(Vector2 viewTopLeft, Vector2 viewDimensions, float margin) {
+        if (!isCullingStale && viewTopLeft.x() == viewLeft && viewTopLeft.y() == viewTop) {
+            return;
+        }
+        isCullingStale = false;
+        viewLeft = viewTopLeft.x();
+        viewTop = viewTopLeft.y();
+        float left = viewLeft - margin;
+        float top = viewTop - margin;
+        float right = viewLeft + viewDimensions.x() + margin;
+        float bottom = viewTop + viewDimensions.y() + margin;
+        for (Chunk chunk : chunks) {
+            boolean isChunkVisible = chunk.left < right && chunk.right > left &&
+                                     chunk.top < bottom && chunk.bottom > top;
+            if (!isChunkVisible && chunk.isHidden) {
+                continue; // Still entirely off-screen, nothing to update
+            }
+            chunk.isHidden = !isChunkVisible;
+            for (int i = 0; i < chunk.objects.size(); i++) {
+                if (!chunk.isCulled[i]) {
+                    continue;
+                }
+                // Only the objects of a chunk that intersects the view are tested one by one
+                float[] bounds = chunk.bounds;
+                boolean isVisible = isChunkVisible &&
+                                    bounds[i * 4] < right && bounds[i * 4 + 2] > left &&
+                                    bounds[i * 4 + 1] < bottom && bounds[i * 4 + 3] > top;
+                setVisible(chunk, i, isVisible);
+            }
+        }
+    }
+
+    /**
+     * Shifts the loaded chunks and their objects by a whole number of chunks to the left,
+     * when the origin of the game's coordinates moves as many chunks to the right,
+     * so the objects keep their place in the world. Should not be called during a pre-generation.
+     *
+     * @param chunkShift The number of chunks the origin moved by.
+     */
+    void rebase(int chunkShift) {
+        float deltaX = -(float) chunkShift * chunkWidth;
+        Vector2 delta = Vector2.of(deltaX, 0);
+        for (Chunk chunk : chunks) {
+            for (int i = 0; i < chunk.objects.size(); i++) {
+                GameObject gameObject = chunk.objects.get(i);
+                gameObject.setTopLeftCorner(gameObject.getTopLeftCorner().add(delta));
+                chunk.bounds[i * 4] += deltaX;
+                chunk.bounds[i * 4 + 2] += deltaX;
+            }
+            chunk.left += deltaX;
+            chunk.right += deltaX;
+        }
+        firstLoadedChunk -= chunkShift;
+        isCullingStale = true;
+    }
+
+    /**
+     * Returns the number of loaded chunks.
+     *
+     * @return The number of loaded chunks.
+     */
+    int getLoadedChunks() {
+        return chunks.size();
+    }
+
+    /**
+     * Returns the number of objects in the loaded chunks.
+     *
+     * @return The number of streamed objects in the game.
+     */
+    int getLoadedObjects() {
+        return loadedObjects;
+    }
+
+    /**
+     * Returns the number of objects in the loaded chunks that are not culled, i.e. that are rendered.
+     *
+     * @return The number of streamed objects that are shown.
+     */
+    int getVisibleObjects() {
+        return loadedObjects - hiddenObjects;
+    }
+}
@@ -0,0 +1,39 @@
+package pepse.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An eviction pass of the world streamer, which removed the chunks that got too far from the avatar.
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+@Name("pepse.ChunkEviction")
+@Label("Chunk Eviction")
+@Category(Telemetry.CATEGORY)
+@Description("An eviction pass that removed the objects of the chunks that got too far")
+@StackTrace(false)
+public final class ChunkEvictionEvent extends jdk.jfr.Event {
+
+    /**
+     * The number of chunks evicted.
+     */
+    @Label("Chunks")
+    public int chunks;
+
+    /**
+     * The number of objects removed from the game.
+     */
+    @Label("Objects")
+    public int objects;
+
+    /**
+     * The number of objects removed from each layer, as "layer=count" pairs.
+     */
+    @Label("Objects Per Layer")
+    public String objectsPerLayer;
+}
@@ -0,0 +1,64 @@
+package pepse.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The generation of a chunk of the world: its content, and the creation of its objects.
+ * Chunks are generated on the game's thread while streaming, and on pool threads while pre-generating.
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+@Name("pepse.ChunkGeneration")
+@Label("Chunk Generation")
+@Category(Telemetry.CATEGORY)
+@Description("Generation of the content and the objects of a chunk of the world")
+@StackTrace(false)
+public final class ChunkGenerationEvent extends jdk.jfr.Event {
+
+    /**
+     * The first block column of the chunk, in the world.
+     */
+    @Label("First Column")
+    public int firstColumn;
+
+    /**
+     * The block column right after the chunk, in the world.
+     */
+    @Label("End Column")
+    public int endColumn;
+
+    /**
+     * The number of terrain blocks created.
+     */
+    @Label("Blocks")
+    public int blocks;
+
+    /**
+     * The number of trees created.
+     */
+    @Label("Trees")
+    public int trees;
+
+    /**
+     * The number of leaves of the trees, whether they were created as objects or baked into canopies.
+     */
+    @Label("Leaves")
+    public int leaves;
+
+    /**
+     * The number of fruits created.
+     */
+    @Label("Fruits")
+    public int fruits;
+
+    /**
+     * The number of objects created for the chunk.
+     */
+    @Label("Objects")
+    public int objects;
+}
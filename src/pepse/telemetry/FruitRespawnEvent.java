@@ -0,0 +1,33 @@
+package pepse.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The respawn of an eaten fruit, run by the world clock.
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+@Name("pepse.FruitRespawn")
+@Label("Fruit Respawn")
+@Category(Telemetry.CATEGORY)
+@Description("An eaten fruit that respawned")
+@StackTrace(false)
+public final class FruitRespawnEvent extends jdk.jfr.Event {
+
+    /**
+     * The column (in blocks) of the fruit's tree.
+     */
+    @Label("Tree Column")
+    public int treeColumn;
+
+    /**
+     * The index of the fruit's cell in the tree's foliage grid.
+     */
+    @Label("Cell")
+    public int cell;
+}
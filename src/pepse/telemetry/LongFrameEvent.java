@@ -0,0 +1,43 @@
+package pepse.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A frame that took longer than its threshold, from the start of its update to the start of the next one,
+ * so it spans both the simulation and the rendering of the frame.
+ * Frames shorter than the threshold are discarded when committed, so only spikes are recorded.
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+@Name("pepse.LongFrame")
+@Label("Long Frame")
+@Category(Telemetry.CATEGORY)
+@Description("A frame that took longer than the threshold, including its rendering")
+@StackTrace(false)
+@Threshold("20 ms")
+public final class LongFrameEvent extends jdk.jfr.Event {
+
+    /**
+     * The number of simulation steps run by the frame.
+     */
+    @Label("Simulation Steps")
+    public int simulationSteps;
+
+    /**
+     * The number of streamed objects in the game.
+     */
+    @Label("Loaded Objects")
+    public int loadedObjects;
+
+    /**
+     * The number of streamed objects that were rendered.
+     */
+    @Label("Visible Objects")
+    public int visibleObjects;
+}
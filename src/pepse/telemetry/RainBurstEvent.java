@@ -0,0 +1,45 @@
+package pepse.telemetry;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A burst of rain poured by every live cloud at once, e.g. when the avatar jumps.
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+@Name("pepse.RainBurst")
+@Label("Rain Burst")
+@Category(Telemetry.CATEGORY)
+@Description("A burst of rain poured by every live cloud")
+@StackTrace(false)
+public final class RainBurstEvent extends jdk.jfr.Event {
+
+    /**
+     * The number of live clouds.
+     */
+    @Label("Clouds")
+    public int clouds;
+
+    /**
+     * The number of drops spawned by the burst.
+     */
+    @Label("Drops Spawned")
+    public int dropsSpawned;
+
+    /**
+     * The number of clouds that were denied their burst by the drop budgets.
+     */
+    @Label("Denied Clouds")
+    public int deniedClouds;
+
+    /**
+     * The number of live drops after the burst.
+     */
+    @Label("Live Drops")
+    public int liveDrops;
+}
@@ -0,0 +1,49 @@
+package pepse.telemetry;
+
+/**
+ * The switch of the game's custom Java Flight Recorder events.
+ * <p>
+ *     The events explain frame spikes in a recording: chunk generation, eviction passes, rain bursts,
+ *     fruit respawns and long frames. Emitters check {@link #isEnabled()} before creating an event,
+ *     so a game that was not launched with telemetry neither allocates events nor times them.
+ *     Once enabled, the events are recorded by any running recording, e.g. one started with
+ *     {@code -XX:StartFlightRecording}, and can be filtered by their "PEPSE" category.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public final class Telemetry {
+
+    /**
+     * The category of all the game's events.
+     */
+    static final String CATEGORY = "PEPSE";
+
+    // Private static fields
+    private static boolean isEnabled; /* Whether the events are emitted */
+
+    /**
+     * Private constructor to prevent instantiation of the Telemetry class.
+     */
+    private Telemetry() {}
+
+    /**
+     * Enables or disables the events. Should be called once, before the world is generated,
+     * so every thread that emits events sees the setting.
+     *
+     * @param isEnabled {@code true} to emit the events, {@code false} otherwise.
+     */
+    public static void setEnabled(boolean isEnabled) {
+        Telemetry.isEnabled = isEnabled;
+    }
+
+    /**
+     * Returns whether the events are emitted.
+     *
+     * @return {@code true} if the events are emitted, {@code false} otherwise.
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+}
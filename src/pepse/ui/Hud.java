@@ -0,0 +1,67 @@
+package pepse.ui;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * The heads-up display: a column of {@link HudWidget} readouts, fixed to the camera.
+ * <p>
+ *     Every widget declares the source of its value and how to format it, and re-renders
+ *     only when the value changes. Widgets are stacked top to bottom in the order they are added.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class Hud {
+
+    // Private constants
+    private static final float ROW_SPACING = 5; /* The vertical space between consecutive widgets */
+
+    // Private final fields
+    /* A BiConsumer function to add a GameObject to the game at a specified layer */
+    private final BiConsumer<GameObject, Integer> addGameObject;
+    private final int layer; /* The layer of the widgets */
+
+    // Private fields
+    private Vector2 nextTopLeftCorner; /* The top left corner of the next widget, in camera coordinates */
+
+    /**
+     * Constructs a new, empty Hud.
+     *
+     * @param topLeftCorner The top left corner of the first widget, in camera coordinates.
+     * @param addGameObject A BiConsumer function for adding a GameObject to the game at a specified layer.
+     * @param layer The layer of the widgets.
+     */
+    public Hud(Vector2 topLeftCorner, BiConsumer<GameObject, Integer> addGameObject, int layer) {
+        this.nextTopLeftCorner = topLeftCorner;
+        this.addGameObject = addGameObject;
+        this.layer = layer;
+    }
+
+    /**
+     * Adds a widget below the previously added ones.
+     *
+     * @param dimensions The dimensions of the widget.
+     * @param source Supplies the displayed value.
+     * @param format Formats a value into the displayed text.
+     * @param minCachedValue The smallest value whose text is formatted in advance.
+     * @param maxCachedValue The largest value whose text is formatted in advance.
+     * @return The added widget.
+     */
+    public HudWidget addWidget(
+            Vector2 dimensions, IntSupplier source, IntFunction<String> format,
+            int minCachedValue, int maxCachedValue
+    ) {
+        HudWidget widget = HudWidget.create(
+                nextTopLeftCorner, dimensions, source, format, minCachedValue, maxCachedValue
+        );
+        addGameObject.accept(widget, layer);
+        nextTopLeftCorner = nextTopLeftCorner.add(Vector2.of(0, dimensions.y() + ROW_SPACING));
+        return widget;
+    }
+}
@@ -0,0 +1,120 @@
+package pepse.ui;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+import pepse.util.AllocationMonitor;
+
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * A text readout of the HUD, which displays an integer value read from its source.
+ * <p>
+ *     The widget polls its source every frame, but only sets the text (which re-lays it out)
+ *     when the value changed. The text of every value in a common range is formatted once, in advance,
+ *     so a change within that range does not allocate either. Values outside of it are formatted on demand.
+ * </p>
+ *
+ * @see Hud
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class HudWidget extends GameObject {
+
+    // Private final fields
+    private final IntSupplier source; /* Supplies the displayed value */
+    private final IntFunction<String> format; /* Formats a value into the displayed text */
+    private final int minCachedValue; /* The smallest value whose text is cached */
+    private final String[] cachedTexts; /* The text of every value in the cached range */
+    private final TextRenderable text; /* The renderable of the displayed text */
+
+    // Private fields
+    private int displayedValue; /* The value the text currently displays */
+
+    /**
+     * Constructs a new HudWidget.
+     *
+     * @param topLeftCorner The top left corner of the widget, in camera coordinates.
+     * @param dimensions The dimensions of the widget.
+     * @param source Supplies the displayed value.
+     * @param format Formats a value into the displayed text.
+     * @param minCachedValue The smallest value whose text is cached.
+     * @param cachedTexts The text of every value in the cached range.
+     * @param initialValue The value displayed at first.
+     * @param text The renderable of the displayed text, initialized to the initial value.
+     */
+    private HudWidget(
+            Vector2 topLeftCorner, Vector2 dimensions, IntSupplier source, IntFunction<String> format,
+            int minCachedValue, String[] cachedTexts, int initialValue, TextRenderable text
+    ) {
+        super(topLeftCorner, dimensions, text);
+        this.source = source;
+        this.format = format;
+        this.minCachedValue = minCachedValue;
+        this.cachedTexts = cachedTexts;
+        this.displayedValue = initialValue;
+        this.text = text;
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+    }
+
+    /**
+     * Creates a new HudWidget, formatting the text of every value in the cached range.
+     *
+     * @param topLeftCorner The top left corner of the widget, in camera coordinates.
+     * @param dimensions The dimensions of the widget.
+     * @param source Supplies the displayed value.
+     * @param format Formats a value into the displayed text.
+     * @param minCachedValue The smallest value whose text is cached.
+     * @param maxCachedValue The largest value whose text is cached.
+     * @return The new widget, displaying the current value of its source.
+     */
+    public static HudWidget create(
+            Vector2 topLeftCorner, Vector2 dimensions, IntSupplier source, IntFunction<String> format,
+            int minCachedValue, int maxCachedValue
+    ) {
+        String[] cachedTexts = new String[maxCachedValue - minCachedValue + 1];
+        for (int i = 0; i < cachedTexts.length; i++) {
+            cachedTexts[i] = format.apply(minCachedValue + i);
+        }
+        int initialValue = source.getAsInt();
+        HudWidget widget = new HudWidget(
+                topLeftCorner, dimensions, source, format, minCachedValue, cachedTexts, initialValue,
+                new TextRenderable("")
+        );
+        widget.text.setString(widget.textOf(initialValue));
+        return widget;
+    }
+
+    /**
+     * Returns the text of a value, from the cache if it is in the cached range.
+     *
+     * @param value The value.
+     * @return The text displaying the value.
+     */
+    private String textOf(int value) {
+        int index = value - minCachedValue;
+        if (index >= 0 && index < cachedTexts.length) {
+            return cachedTexts[index];
+        }
+        return format.apply(value);
+    }
+
+    /**
+     * Reads the value from the source, and updates the text only if the value changed.
+     *
+     * @param deltaTime The time elapsed, in seconds, since the last frame.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        AllocationMonitor.beginSection();
+        int value = source.getAsInt();
+        if (value != displayedValue) {
+            displayedValue = value;
+            text.setString(textOf(value));
+        }
+        AllocationMonitor.endSection();
+    }
+}
@@ -0,0 +1,159 @@
+package pepse.util;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the heap allocated by the game's own per-frame work, and checks it against a committed ceiling.
+ * <p>
+ *     The bytes allocated by the game thread are read, through the JVM's {@code ThreadMXBean},
+ *     around the sections of the game's own work: the game manager's update, and the game's own logic
+ *     in its objects' updates. The engine's work (e.g. integrating the objects' movement, and collisions)
+ *     runs outside these sections, so only the game's own paths are measured.
+ * </p>
+ * <p>
+ *     Streaming the world's content in and out, i.e. loading or evicting a chunk and spawning or retiring
+ *     a cloud, is measured apart: it creates the content's objects, and adds them to the engine or removes
+ *     them from it, once every many frames. It is reported per window but not held to the ceiling.
+ *     Every other byte counts against {@link #MAX_BYTES_PER_FRAME}.
+ * </p>
+ * <p>
+ *     After a warm-up (during which the JIT compiles the hot paths), the average over every window of frames
+ *     is reported and compared to the ceiling, for a fixed number of windows.
+ *     Like {@link pepse.telemetry.Telemetry}, the monitor is a global switch, so the game's objects
+ *     can mark their own sections without holding a reference to it.
+ *     It must only be used on the game thread.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public final class AllocationMonitor {
+
+    /**
+     * The allowed average allocation of the game's own work per frame, in bytes.
+     * A steady-state frame allocates nothing: the ceiling only leaves room for rare events,
+     * i.e. a position when the avatar lands or walks into a wall, the respawn event of an eaten fruit,
+     * and a HUD text that changed.
+     */
+    public static final long MAX_BYTES_PER_FRAME = 32;
+
+    // Private constants
+    private static final int WARM_UP_FRAMES = 600; /* The number of frames that are not measured */
+    private static final int WINDOW_FRAMES = 600; /* The number of frames averaged in every report */
+    private static final int CHECKED_WINDOWS = 5; /* The number of windows checked before the check passes */
+    /* The formats of a report line and of a failure line */
+    private static final String REPORT_FORMAT =
+            "allocation bytesPerFrame=%d ceiling=%d contentBytesPerFrame=%d%n";
+    private static final String FAILURE_FORMAT =
+            "ALLOCATION REGRESSION: %d bytes per frame exceed the ceiling of %d%n";
+
+    // Private static fields
+    /* Reads the bytes allocated by a thread, or null if the monitor is disabled */
+    private static com.sun.management.ThreadMXBean threads;
+    private static long sectionStartBytes; /* The bytes allocated by the thread when the section began */
+    private static long contentStartBytes; /* The bytes allocated by the thread when content work began */
+    private static long frameBytes; /* The bytes allocated by the game's own work in the current frame */
+    private static long windowBytes; /* The bytes allocated by the game's own work in the current window */
+    private static long windowContentBytes; /* The bytes allocated by content work in the current window */
+    private static int windowFrames; /* The number of frames in the current window */
+    private static int warmUpFramesLeft; /* The number of warm-up frames left */
+    private static int windowsLeft; /* The number of windows left to check */
+
+    /**
+     * Private constructor to prevent instantiation of the AllocationMonitor class.
+     */
+    private AllocationMonitor() {}
+
+    /**
+     * Starts the check on the calling thread, which must be the game thread.
+     * Should be called once, after the world around the player was generated.
+     */
+    public static void start() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        warmUpFramesLeft = WARM_UP_FRAMES;
+        windowsLeft = CHECKED_WINDOWS;
+    }
+
+    /**
+     * Marks the beginning of a section of the game's own work. Does nothing if the monitor was not started.
+     */
+    public static void beginSection() {
+        if (threads != null) {
+            sectionStartBytes = threads.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /**
+     * Marks the end of a section of the game's own work, begun by {@link #beginSection()}.
+     * Sections must not be nested.
+     */
+    public static void endSection() {
+        if (threads != null) {
+            frameBytes += threads.getCurrentThreadAllocatedBytes() - sectionStartBytes;
+        }
+    }
+
+    /**
+     * Marks the beginning of work on the world's content, i.e. loading or evicting a chunk, or spawning
+     * or retiring a cloud, within a section of the game's own work.
+     */
+    public static void beginContentWork() {
+        if (threads != null) {
+            contentStartBytes = threads.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /**
+     * Marks the end of content work begun by {@link #beginContentWork()},
+     * moving its bytes out of the frame's.
+     */
+    public static void endContentWork() {
+        if (threads != null) {
+            long contentBytes = threads.getCurrentThreadAllocatedBytes() - contentStartBytes;
+            frameBytes -= contentBytes; // Counted again by the enclosing section
+            windowContentBytes += contentBytes;
+        }
+    }
+
+    /**
+     * Marks the end of a frame, and checks the ceiling once a window of frames ended.
+     *
+     * @return {@code true} if the average allocation of the last window exceeded the ceiling,
+     *         {@code false} otherwise.
+     */
+    public static boolean endFrame() {
+        long bytes = frameBytes;
+        frameBytes = 0;
+        if (warmUpFramesLeft > 0) {
+            warmUpFramesLeft--;
+            windowContentBytes = 0;
+            return false;
+        }
+        windowBytes += bytes;
+        windowFrames++;
+        if (windowFrames < WINDOW_FRAMES) {
+            return false;
+        }
+        long bytesPerFrame = windowBytes / windowFrames;
+        long contentBytesPerFrame = windowContentBytes / windowFrames;
+        windowBytes = 0;
+        windowContentBytes = 0;
+        windowFrames = 0;
+        windowsLeft = Math.max(0, windowsLeft - 1); // Stays passed until the game closes
+        System.out.printf(REPORT_FORMAT, bytesPerFrame, MAX_BYTES_PER_FRAME, contentBytesPerFrame);
+        if (bytesPerFrame > MAX_BYTES_PER_FRAME) {
+            System.out.printf(FAILURE_FORMAT, bytesPerFrame, MAX_BYTES_PER_FRAME);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether every window of the check was checked, all within the ceiling.
+     *
+     * @return {@code true} if the check passed, {@code false} if it is still running or was not started.
+     */
+    public static boolean isPassed() {
+        return threads != null && windowsLeft == 0;
+    }
+}
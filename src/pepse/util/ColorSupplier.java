@@ -78,6 +78,27 @@ public final class ColorSupplier {
         );
     }
 
+    /**
+     * Returns a color similar to baseColor, with a difference of at most colorDelta,
+     * drawn from the given random number generator.
+     * Useful when the same color must be reproduced, e.g. for cached images.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param random The random number generator to draw the channels from.
+     * @return A color similar to baseColor.
+     */
+    public static Color approximateColor(Color baseColor, Random random) {
+        int red = baseColor.getRed();
+        int green = baseColor.getGreen();
+        int blue = baseColor.getBlue();
+
+        return new Color(
+                randomChannelInRange(red - DEFAULT_COLOR_DELTA, red + DEFAULT_COLOR_DELTA, random),
+                randomChannelInRange(green - DEFAULT_COLOR_DELTA, green + DEFAULT_COLOR_DELTA, random),
+                randomChannelInRange(blue - DEFAULT_COLOR_DELTA, blue + DEFAULT_COLOR_DELTA, random)
+        );
+    }
+
     /**
      * This method generates a random value for a color channel within the given range [min, max].
      *
@@ -86,6 +107,19 @@ public final class ColorSupplier {
      * @return A random number in the range [min, max], clipped to [0,255].
      */
     private static int randomChannelInRange(int min, int max) {
+        return randomChannelInRange(min, max, random);
+    }
+
+    /**
+     * This method generates a random value for a color channel within the given range [min, max],
+     * drawn from the given random number generator.
+     *
+     * @param min The lower bound of the given range.
+     * @param max The upper bound of the given range.
+     * @param random The random number generator to draw the channel from.
+     * @return A random number in the range [min, max], clipped to [0,255].
+     */
+    private static int randomChannelInRange(int min, int max, Random random) {
         int channel = random.nextInt(max - min + 1) + min;
         return Math.min(255, Math.max(channel, 0));
     }
@@ -0,0 +1,84 @@
+package pepse.util;
+
+/**
+ * A fixed-timestep accumulator, which decouples the simulation rate from the render rate.
+ * <p>
+ *     Every rendered frame adds its (variable) duration to an accumulator, and the simulation is then
+ *     advanced in whole steps of a fixed length, as many as the accumulator holds.
+ *     The remainder is kept for the next frame, and can be used to interpolate the rendered state
+ *     between the last two simulation steps.
+ * </p>
+ * <p>
+ *     To avoid a spiral of death on slow frames, the number of steps per frame is capped;
+ *     time beyond the cap is dropped, so the simulation slows down instead of falling further behind.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class FixedTimestep {
+
+    // Private final fields
+    private final float stepLength; /* The length of a single simulation step in seconds */
+    private final int maxStepsPerFrame; /* The maximal number of steps taken in a single frame */
+
+    // Private fields
+    private float accumulator; /* The frame time that was not yet simulated, in seconds */
+    private long droppedSteps; /* The number of steps dropped because of the cap */
+
+    /**
+     * Constructs a new FixedTimestep.
+     *
+     * @param stepsPerSecond The fixed simulation rate, in steps per second.
+     * @param maxStepsPerFrame The maximal number of steps taken in a single frame.
+     */
+    public FixedTimestep(float stepsPerSecond, int maxStepsPerFrame) {
+        this.stepLength = 1 / stepsPerSecond;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /**
+     * Adds the duration of a frame to the accumulator, and returns the number of steps to simulate.
+     *
+     * @param frameDeltaTime The time elapsed since the last frame in seconds.
+     * @return The number of fixed steps the simulation should advance in this frame.
+     */
+    public int advance(float frameDeltaTime) {
+        accumulator += frameDeltaTime;
+        int steps = (int) (accumulator / stepLength);
+        if (steps > maxStepsPerFrame) { // Drop the time we cannot catch up with
+            droppedSteps += steps - maxStepsPerFrame;
+            steps = maxStepsPerFrame;
+            accumulator = steps * stepLength + accumulator % stepLength;
+        }
+        accumulator -= steps * stepLength;
+        return steps;
+    }
+
+    /**
+     * Returns how far the rendered frame is between the last simulation step and the next one.
+     *
+     * @return A value in [0, 1), which can be used to interpolate between the last two simulated states.
+     */
+    public float getInterpolationAlpha() {
+        return Math.min(accumulator / stepLength, 1);
+    }
+
+    /**
+     * Returns the length of a single simulation step.
+     *
+     * @return The length of a step in seconds.
+     */
+    public float getStepLength() {
+        return stepLength;
+    }
+
+    /**
+     * Returns the number of steps that were dropped because a frame exceeded the cap.
+     *
+     * @return The number of dropped steps.
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
@@ -0,0 +1,49 @@
+package pepse.util;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Counts the frames rendered in every second, as a source for a frame rate readout.
+ * <p>
+ *     Unlike an average of the frame times, the count changes at most once per second,
+ *     so a readout of it is not re-rendered on every frame.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class FrameRateCounter implements IntSupplier {
+
+    // Private constants
+    private static final float COUNTING_INTERVAL = 1; /* The length of a counting interval, in seconds */
+
+    // Private fields
+    private float elapsed; /* The time elapsed in the current interval, in seconds */
+    private int frames; /* The number of frames in the current interval */
+    private int framesPerSecond; /* The frame rate of the last full interval */
+
+    /**
+     * Records a frame.
+     *
+     * @param frameDeltaTime The duration of the frame in seconds.
+     */
+    public void record(float frameDeltaTime) {
+        elapsed += frameDeltaTime;
+        frames++;
+        if (elapsed >= COUNTING_INTERVAL) {
+            framesPerSecond = Math.round(frames / elapsed);
+            elapsed = 0;
+            frames = 0;
+        }
+    }
+
+    /**
+     * Returns the frame rate of the last full second.
+     *
+     * @return The number of frames per second.
+     */
+    @Override
+    public int getAsInt() {
+        return framesPerSecond;
+    }
+}
@@ -0,0 +1,70 @@
+package pepse.util;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Periodically reports the frame time of the game against the number of actors in the world.
+ * <p>
+ *     The frame time is the work the game did to update the frame, timed around it, rather than
+ *     the interval between frames, which also holds the rendering and the wait for the frame rate cap.
+ *     Frame times are accumulated over a reporting interval, after which a line with the number of actors,
+ *     the number of frames, the average and worst frame times and the frame rate is printed
+ *     to the standard output.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class FrameTimeReport {
+
+    // Private constants
+    private static final double NANOS_IN_MILLISECOND = 1e6; /* The number of nanoseconds in a millisecond */
+    /* The format of a report line */
+    private static final String REPORT_FORMAT =
+            "actors=%d frames=%d avgFrameMs=%.2f maxFrameMs=%.2f fps=%.1f%n";
+
+    // Private final fields
+    private final float reportInterval; /* The time between reports, in seconds */
+    private final IntSupplier actorCount; /* Supplies the current number of actors */
+
+    // Private fields
+    private float elapsed; /* The time between frames accumulated since the last report, in seconds */
+    private long totalWorkNanos; /* The update work of the frames since the last report */
+    private long maxWorkNanos; /* The update work of the longest frame since the last report */
+    private int frames; /* The number of frames since the last report */
+
+    /**
+     * Constructs a new FrameTimeReport.
+     *
+     * @param reportInterval The time between reports, in seconds.
+     * @param actorCount Supplies the current number of actors.
+     */
+    public FrameTimeReport(float reportInterval, IntSupplier actorCount) {
+        this.reportInterval = reportInterval;
+        this.actorCount = actorCount;
+    }
+
+    /**
+     * Records a frame, and prints a report once the reporting interval elapsed.
+     *
+     * @param frameDeltaTime The time since the previous frame in seconds, which paces the reports.
+     * @param workNanos The time the game spent updating the frame, in nanoseconds.
+     */
+    public void record(float frameDeltaTime, long workNanos) {
+        elapsed += frameDeltaTime;
+        totalWorkNanos += workNanos;
+        maxWorkNanos = Math.max(maxWorkNanos, workNanos);
+        frames++;
+        if (elapsed >= reportInterval) {
+            System.out.printf(
+                    REPORT_FORMAT, actorCount.getAsInt(), frames,
+                    totalWorkNanos / (double) frames / NANOS_IN_MILLISECOND,
+                    maxWorkNanos / NANOS_IN_MILLISECOND, frames / elapsed
+            );
+            elapsed = 0;
+            totalWorkNanos = 0;
+            maxWorkNanos = 0;
+            frames = 0;
+        }
+    }
+}
@@ -14,6 +14,7 @@ package pepse.util;
  * @author OOP Course staff @ HUJI (67125) TASHPA (2025) SEM A, modifications by Noam Kimhi and Or Forshmit
  */
 public class NoiseGenerator {
+    private static final int PERMUTATION_SIZE = 256; // Lattice coordinates are hashed modulo this size
     private final double seed;
     private int[] p;
     private final double startPoint;
@@ -96,6 +97,19 @@ public class NoiseGenerator {
         return value * factor / startPoint;
     }
 
+    /**
+     * Returns the period of the noise along x,
+     * i.e. noise(x + period, factor) == noise(x, factor) for every x.
+     * <p>
+     *     The lattice coordinates are hashed modulo the size of the permutation, so every octave repeats
+     *     after that many of its wavelengths, and the wavelength of every octave divides the start point.
+     * </p>
+     * @return the period of the noise.
+     */
+    public double getPeriod() {
+        return PERMUTATION_SIZE * startPoint;
+    }
+
     /**
      * This method is responsible for generating the smooth noise.
      * @param x the x coordinate to generate the noise for.
@@ -0,0 +1,66 @@
+package pepse.util;
+
+/**
+ * Measures the wall-clock duration of consecutive phases of a process, e.g. of the startup of the game,
+ * and reports them in a single line. Work that ran in the background, alongside the phases,
+ * may be reported in the same line, though it is not part of the total.
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class PhaseTimer {
+
+    // Private constants
+    private static final double NANOS_IN_MILLISECOND = 1e6; /* The number of nanoseconds in a millisecond */
+    private static final String PHASE_FORMAT = " %s=%.1fms"; /* The format of a phase in the report */
+    private static final String REPORT_FORMAT = "%s:%s total=%.1fms%n"; /* The format of the report */
+
+    // Private final fields
+    private final String name; /* The name of the measured process */
+    private final long startNanos; /* The time at which the first phase started */
+    private final StringBuilder phases; /* The durations of the ended phases, formatted */
+
+    // Private fields
+    private long phaseStartNanos; /* The time at which the current phase started */
+
+    /**
+     * Constructs a new PhaseTimer, starting the first phase right away.
+     *
+     * @param name The name of the measured process.
+     */
+    public PhaseTimer(String name) {
+        this.name = name;
+        this.startNanos = System.nanoTime();
+        this.phaseStartNanos = startNanos;
+        this.phases = new StringBuilder();
+    }
+
+    /**
+     * Ends the current phase, and starts the next one right away.
+     *
+     * @param phase The name of the ended phase.
+     */
+    public void endPhase(String phase) {
+        long now = System.nanoTime();
+        phases.append(String.format(PHASE_FORMAT, phase, (now - phaseStartNanos) / NANOS_IN_MILLISECOND));
+        phaseStartNanos = now;
+    }
+
+    /**
+     * Records the duration of work that ran in the background, alongside the phases.
+     *
+     * @param phase The name of the background work.
+     * @param nanos The wall-clock duration of the work, in nanoseconds.
+     */
+    public void addBackgroundPhase(String phase, long nanos) {
+        phases.append(String.format(PHASE_FORMAT, phase, nanos / NANOS_IN_MILLISECOND));
+    }
+
+    /**
+     * Prints the durations of the ended phases, and the total duration so far.
+     */
+    public void report() {
+        double totalMillis = (System.nanoTime() - startNanos) / NANOS_IN_MILLISECOND;
+        System.out.printf(REPORT_FORMAT, name, phases, totalMillis);
+    }
+}
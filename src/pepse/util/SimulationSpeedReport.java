@@ -0,0 +1,61 @@
+package pepse.util;
+
+/**
+ * Periodically reports how fast a simulation runs compared to real time.
+ * <p>
+ *     Every reporting interval (in real time), a line with the simulated time so far, the real time so far,
+ *     and the number of simulated seconds per real second is printed to the standard output.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class SimulationSpeedReport {
+
+    // Private constants
+    private static final double NANOS_IN_SECOND = 1e9; /* The number of nanoseconds in a second */
+    /* The format of a report line */
+    private static final String REPORT_FORMAT =
+            "simulated=%.0fs real=%.1fs simulatedSecondsPerRealSecond=%.1f%n";
+
+    // Private final fields
+    private final long reportIntervalNanos; /* The real time between reports, in nanoseconds */
+    private final long startNanos; /* The real time at which the simulation started */
+
+    // Private fields
+    private long nextReportNanos; /* The real time of the next report */
+
+    /**
+     * Constructs a new SimulationSpeedReport, starting to measure real time right away.
+     *
+     * @param reportInterval The real time between reports, in seconds.
+     */
+    public SimulationSpeedReport(float reportInterval) {
+        this.reportIntervalNanos = (long) (reportInterval * NANOS_IN_SECOND);
+        this.startNanos = System.nanoTime();
+        this.nextReportNanos = startNanos + reportIntervalNanos;
+    }
+
+    /**
+     * Prints a report if the reporting interval elapsed since the last one.
+     *
+     * @param simulatedSeconds The simulated time so far, in seconds.
+     */
+    public void record(double simulatedSeconds) {
+        long now = System.nanoTime();
+        if (now >= nextReportNanos) {
+            report(simulatedSeconds);
+            nextReportNanos = now + reportIntervalNanos;
+        }
+    }
+
+    /**
+     * Prints a report right away.
+     *
+     * @param simulatedSeconds The simulated time so far, in seconds.
+     */
+    public void report(double simulatedSeconds) {
+        double realSeconds = (System.nanoTime() - startNanos) / NANOS_IN_SECOND;
+        System.out.printf(REPORT_FORMAT, simulatedSeconds, realSeconds, simulatedSeconds / realSeconds);
+    }
+}
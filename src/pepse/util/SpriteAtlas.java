@@ -0,0 +1,175 @@
+package pepse.util;
+
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A sprite atlas: many frames packed into a single image, alongside an index of their bounds.
+ * <p>
+ *     The atlas is produced once, offline, by {@link #main(String[])}, which packs a list of frame images
+ *     into rows ("shelves") of an atlas image and writes a text index with a line per frame:
+ *     {@code <name> <x> <y> <width> <height>}, where the name of a frame is its file name without
+ *     the extension. At runtime, the atlas is read with a single image read, and frames are sliced from it.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class SpriteAtlas {
+
+    // Private constants
+    private static final int MAX_ATLAS_WIDTH = 512; /* The width after which the packer starts a new row */
+    private static final String IMAGE_FORMAT = "png"; /* The format of the atlas image */
+    private static final String INDEX_SEPARATOR = " "; /* The separator between fields of an index line */
+    private static final char EXTENSION_SEPARATOR = '.'; /* Separates a file name from its extension */
+    private static final int MIN_PACKER_ARGUMENTS = 3; /* Atlas image, index, and at least one frame */
+
+    // Private final fields
+    private final BufferedImage atlas; /* The atlas image */
+    private final Map<String, Rectangle> frameBounds; /* The bounds of each frame within the atlas */
+
+    /**
+     * Constructs a new SpriteAtlas.
+     *
+     * @param atlas The atlas image.
+     * @param frameBounds The bounds of each frame within the atlas, by frame name.
+     */
+    private SpriteAtlas(BufferedImage atlas, Map<String, Rectangle> frameBounds) {
+        this.atlas = atlas;
+        this.frameBounds = frameBounds;
+    }
+
+    /**
+     * Loads an atlas that was packed by {@link #main(String[])}.
+     *
+     * @param imagePath The path of the atlas image.
+     * @param indexPath The path of the atlas index.
+     * @return The loaded atlas.
+     * @throws UncheckedIOException If the atlas image or its index cannot be read.
+     */
+    public static SpriteAtlas load(String imagePath, String indexPath) {
+        try {
+            BufferedImage atlas = ImageIO.read(new File(imagePath));
+            Map<String, Rectangle> frameBounds = new HashMap<>();
+            for (String line : Files.readAllLines(Path.of(indexPath))) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.trim().split(INDEX_SEPARATOR);
+                frameBounds.put(fields[0], new Rectangle(
+                        Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), Integer.parseInt(fields[4])
+                ));
+            }
+            return new SpriteAtlas(atlas, frameBounds);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Slices the given frames out of the atlas.
+     * The slices share the atlas' pixels, so slicing does not copy any image data.
+     *
+     * @param names The names of the frames, in order.
+     * @return A renderable for each of the frames, in the same order.
+     */
+    public Renderable[] frames(String... names) {
+        BufferedImage[] images = frameImages(names);
+        Renderable[] frames = new Renderable[names.length];
+        for (int i = 0; i < names.length; i++) {
+            frames[i] = new ImageRenderable(images[i]);
+        }
+        return frames;
+    }
+
+    /**
+     * Slices the images of the given frames out of the atlas, e.g. to derive variants of them.
+     * The slices share the atlas' pixels, so slicing does not copy any image data.
+     *
+     * @param names The names of the frames, in order.
+     * @return The image of each of the frames, in the same order.
+     */
+    public BufferedImage[] frameImages(String... names) {
+        BufferedImage[] images = new BufferedImage[names.length];
+        for (int i = 0; i < names.length; i++) {
+            Rectangle bounds = frameBounds.get(names[i]);
+            images[i] = atlas.getSubimage(bounds.x, bounds.y, bounds.width, bounds.height);
+        }
+        return images;
+    }
+
+    /**
+     * Returns the name of a frame, i.e., its file name without the extension.
+     *
+     * @param framePath The path of the frame's image.
+     * @return The name of the frame.
+     */
+    private static String frameName(String framePath) {
+        String fileName = Path.of(framePath).getFileName().toString();
+        int extensionStart = fileName.lastIndexOf(EXTENSION_SEPARATOR);
+        return extensionStart < 0 ? fileName : fileName.substring(0, extensionStart);
+    }
+
+    /**
+     * Packs frame images into an atlas image and an index.
+     * <p>
+     *     Usage: {@code SpriteAtlas <atlas image> <atlas index> <frame image>...}.
+     *     Frames are placed left to right in the given order, and a new row is started
+     *     once a row would exceed the maximal atlas width.
+     * </p>
+     *
+     * @param args The output atlas image path, the output index path, and the paths of the frames.
+     * @throws IOException If a frame cannot be read, or the atlas cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < MIN_PACKER_ARGUMENTS) {
+            System.err.println("Usage: SpriteAtlas <atlas image> <atlas index> <frame image>...");
+            return;
+        }
+        List<BufferedImage> frames = new ArrayList<>();
+        List<String> indexLines = new ArrayList<>();
+        List<Rectangle> bounds = new ArrayList<>();
+        int x = 0, y = 0, rowHeight = 0, atlasWidth = 0;
+        for (int i = MIN_PACKER_ARGUMENTS - 1; i < args.length; i++) {
+            BufferedImage frame = ImageIO.read(new File(args[i]));
+            if (x > 0 && x + frame.getWidth() > MAX_ATLAS_WIDTH) { // Start a new row
+                x = 0;
+                y += rowHeight;
+                rowHeight = 0;
+            }
+            Rectangle frameBounds = new Rectangle(x, y, frame.getWidth(), frame.getHeight());
+            frames.add(frame);
+            bounds.add(frameBounds);
+            indexLines.add(String.join(INDEX_SEPARATOR, frameName(args[i]),
+                    String.valueOf(frameBounds.x), String.valueOf(frameBounds.y),
+                    String.valueOf(frameBounds.width), String.valueOf(frameBounds.height)));
+            x += frame.getWidth();
+            rowHeight = Math.max(rowHeight, frame.getHeight());
+            atlasWidth = Math.max(atlasWidth, x);
+        }
+
+        BufferedImage atlas = new BufferedImage(atlasWidth, y + rowHeight, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = atlas.createGraphics();
+        for (int i = 0; i < frames.size(); i++) {
+            graphics.drawImage(frames.get(i), bounds.get(i).x, bounds.get(i).y, null);
+        }
+        graphics.dispose();
+        ImageIO.write(atlas, IMAGE_FORMAT, new File(args[0]));
+        Files.write(Path.of(args[1]), indexLines);
+    }
+}
@@ -0,0 +1,83 @@
+package pepse.util;
+
+import danogl.GameObject;
+
+/**
+ * The tags of the objects an entity type cares to collide with.
+ * <p>
+ *     The layer collision matrix decides which pairs of layers are tested at all. Within colliding layers,
+ *     an entity type declares the tags it cares about, and uses {@link #test(GameObject)} as its
+ *     {@code shouldCollideWith}, so every other pair is rejected before the collision is resolved.
+ * </p>
+ * <p>
+ *     Every test is counted, across all the interests, so the number of pairs that reach the tag check
+ *     can be reported. Collisions are handled on the game's thread only, so the counters are not atomic.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class TagInterest {
+
+    // Private static fields
+    private static long totalTests; /* The number of pairs tested by all the interests */
+    private static long totalMatches; /* The number of pairs accepted by all the interests */
+
+    // Private final fields
+    private final String[] tags; /* The tags of the objects of interest */
+
+    /**
+     * Constructs a new TagInterest.
+     *
+     * @param tags The tags of the objects of interest.
+     */
+    private TagInterest(String[] tags) {
+        this.tags = tags;
+    }
+
+    /**
+     * Creates an interest in the objects of the given tags.
+     *
+     * @param tags The tags of the objects of interest.
+     * @return The interest.
+     */
+    public static TagInterest of(String... tags) {
+        return new TagInterest(tags.clone());
+    }
+
+    /**
+     * Tests whether an object is of interest, i.e. whether its tag is one of the interest's tags.
+     *
+     * @param other The object to test.
+     * @return {@code true} if the object is of interest, {@code false} otherwise.
+     */
+    public boolean test(GameObject other) {
+        totalTests++;
+        String tag = other.getTag();
+        for (String interesting : tags) {
+            if (interesting.equals(tag)) {
+                totalMatches++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of pairs tested by all the interests so far.
+     *
+     * @return The number of tests.
+     */
+    public static long getTotalTests() {
+        return totalTests;
+    }
+
+    /**
+     * Returns the number of pairs accepted by all the interests so far.
+     *
+     * @return The number of matches.
+     */
+    public static long getTotalMatches() {
+        return totalMatches;
+    }
+}
@@ -0,0 +1,97 @@
+package pepse.world;
+
+/**
+ * Avatar controls that walk the avatar back and forth across a wide span of the world, unattended.
+ * <p>
+ *     The autopilot walks towards one end of its span until it passes it, and then turns around.
+ *     It jumps whenever the avatar did not move since the last step, i.e. when it walked into a wall,
+ *     and rests until its energy is full whenever it runs low.
+ *     It must be steered once per simulation step, before the avatar is updated.
+ * </p>
+ * <p>
+ *     The span and the avatar's position are world x-coordinates (see {@link WorldOrigin}),
+ *     so the autopilot is not affected when the game's coordinates are rebased.
+ * </p>
+ *
+ * @see AvatarControls
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class AutopilotControls implements AvatarControls {
+
+    // Private constants
+    private static final double MIN_WALKING_ENERGY = 20; /* Below this energy the autopilot rests */
+
+    // Private final fields
+    private final double minX; /* The left end of the span */
+    private final double maxX; /* The right end of the span */
+
+    // Private fields
+    private boolean isWalkingRight = true; /* The direction the autopilot walks in */
+    private boolean isResting; /* Whether the autopilot rests until its energy is full */
+    private boolean isJumping; /* Whether the autopilot jumps in the current step */
+    private double lastX = Double.NaN; /* The x-coordinate of the avatar at the previous step */
+
+    /**
+     * Constructs new AutopilotControls.
+     *
+     * @param minX The world x-coordinate of the left end of the span the avatar walks across.
+     * @param maxX The world x-coordinate of the right end of the span the avatar walks across.
+     */
+    public AutopilotControls(double minX, double maxX) {
+        this.minX = minX;
+        this.maxX = maxX;
+    }
+
+    /**
+     * Decides the actions of the current step, based on the avatar's state.
+     *
+     * @param x The world x-coordinate of the avatar.
+     * @param energy The energy of the avatar.
+     */
+    public void steer(double x, double energy) {
+        if (x > maxX) {
+            isWalkingRight = false;
+        } else if (x < minX) {
+            isWalkingRight = true;
+        }
+        if (energy < MIN_WALKING_ENERGY) {
+            isResting = true;
+        } else if (energy >= Avatar.MAX_ENERGY_VALUE - 1) {
+            isResting = false;
+        }
+        // An avatar that should walk but did not move walked into a wall
+        isJumping = !isResting && x == lastX;
+        lastX = x;
+    }
+
+    /**
+     * Returns whether the autopilot walks left.
+     *
+     * @return {@code true} if the avatar should move left, {@code false} otherwise.
+     */
+    @Override
+    public boolean isMovingLeft() {
+        return !isResting && !isWalkingRight;
+    }
+
+    /**
+     * Returns whether the autopilot walks right.
+     *
+     * @return {@code true} if the avatar should move right, {@code false} otherwise.
+     */
+    @Override
+    public boolean isMovingRight() {
+        return !isResting && isWalkingRight;
+    }
+
+    /**
+     * Returns whether the autopilot jumps in the current step.
+     *
+     * @return {@code true} if the avatar should jump, {@code false} otherwise.
+     */
+    @Override
+    public boolean isJumping() {
+        return isJumping;
+    }
+}
@@ -1,17 +1,16 @@
 package pepse.world;
 
 import danogl.GameObject;
-import danogl.collisions.Collision;
 import danogl.components.Component;
-import danogl.gui.ImageReader;
-import danogl.gui.UserInputListener;
 import danogl.gui.rendering.AnimationRenderable;
-import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.AllocationMonitor;
+import pepse.util.TagInterest;
+import pepse.world.trees.Flora;
 
-import java.awt.event.KeyEvent;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * The Avatar class represents the main character in the game,
@@ -19,7 +18,17 @@ import java.util.List;
  * and user interactions. The avatar's state (idle, running, jumping)
  * is determined based on input from the user and is visually
  * represented through animated renderables.
+ * <p>
+ *     Input is read through {@link AvatarControls}, so the same logic drives both the player's avatar
+ *     (with {@link KeyboardControls}) and AI-driven characters.
+ * </p>
+ * <p>
+ *     The avatar does not collide with terrain blocks. Instead, it resolves its contact with the ground
+ *     analytically against the terrain's height field: it lands on the surface of the columns below it,
+ *     and is blocked by columns that rise above its feet.
+ * </p>
  *
+ * @see Terrain#surfaceHeightAt(float)
  * @author Noam Kimhi
  * @author Or Forshmit
  */
@@ -44,128 +53,53 @@ public class Avatar extends GameObject {
     private static final float VELOCITY_X = 400; /* The x velocity of the avatar */
     private static final float VELOCITY_Y = -650; /* The y velocity of the avatar */
     private static final float GRAVITY = 600; /* The gravity value of the avatar */
-    /* The time between each jump and idle animation clip */
-    private static final float TIME_BETWEEN_JUMP_IDLE_CLIPS = 0.35f;
-    private static final float TIME_BETWEEN_RUN_CLIPS = 0.15f; /* The time between each run animation clip */
     /* The energy consumed when the avatar moves horizontally */
     private static final double HORIZONTAL_MOVEMENT_ENERGY_CONSUMPTION = 0.5;
-
-    // Paths to animations
-    /* Paths to the images used in the idle animation */
-    private static final String IDLE_0_ANIMATION_PATH = "assets/idle_0.png";
-    private static final String IDLE_1_ANIMATION_PATH = "assets/idle_1.png";
-    private static final String IDLE_2_ANIMATION_PATH = "assets/idle_2.png";
-    private static final String IDLE_3_ANIMATION_PATH = "assets/idle_3.png";
-    /* Paths to the images used in the jump animation */
-    private static final String JUMP_0_ANIMATION_PATH = "assets/jump_0.png";
-    private static final String JUMP_1_ANIMATION_PATH = "assets/jump_1.png";
-    private static final String JUMP_2_ANIMATION_PATH = "assets/jump_2.png";
-    private static final String JUMP_3_ANIMATION_PATH = "assets/jump_3.png";
-    /* Paths to the images used in the run animation */
-    private static final String RUN_0_ANIMATION_PATH = "assets/run_0.png";
-    private static final String RUN_1_ANIMATION_PATH = "assets/run_1.png";
-    private static final String RUN_2_ANIMATION_PATH = "assets/run_2.png";
-    private static final String RUN_3_ANIMATION_PATH = "assets/run_3.png";
-    private static final String RUN_4_ANIMATION_PATH = "assets/run_4.png";
-    private static final String RUN_5_ANIMATION_PATH = "assets/run_5.png";
+    /* The height difference below which a column is not considered a wall, absorbs rounding errors */
+    private static final float WALL_TOLERANCE = 1;
+    /* The avatar is blocked by trunks and eats fruits, and ignores everything else */
+    private static final TagInterest COLLISION_INTEREST = TagInterest.of(Flora.TRUNK_TAG, Flora.FRUIT_TAG);
 
     // Private final fields
-    private final UserInputListener inputListener; /* The input listener for the avatar */
+    private final AvatarControls controls; /* The controls the avatar is driven by */
+    /* A function returning the height of the terrain's surface at a given x-coordinate */
+    private final DoubleUnaryOperator surfaceHeightAt;
     /* The list of components that are activated when the avatar jumps */
     private final List<Component> onJumpComponents;
+    private final AnimationRenderable idleAnimationRenderable; /* The idle animation renderable */
+    private final AnimationRenderable runAnimationRenderable; /* The run animation renderable */
+    private final AnimationRenderable jumpAnimationRenderable; /* The jump animation renderable */
 
     // Private fields
     private double energy = MAX_ENERGY_VALUE; /* The energy value of the avatar */
-    private AnimationRenderable idleAnimationRenderable; /* The idle animation renderable */
-    private AnimationRenderable runAnimationRenderable; /* The run animation renderable */
-    private AnimationRenderable jumpAnimationRenderable; /* The jump animation renderable */
 
     /**
      * Constructor for the Avatar class.
      * @param topLeftCorner The top left corner of the avatar.
-     * @param inputListener The input listener for the avatar.
-     * @param imageReader The image reader for the avatar.
+     * @param controls The controls the avatar is driven by, e.g. the keyboard.
+     * @param animations The animation frames shared by all the avatar-like characters.
+     * @param surfaceHeightAt A function returning the height of the terrain's surface at an x-coordinate.
      */
-    public Avatar(Vector2 topLeftCorner, UserInputListener inputListener, ImageReader imageReader) {
+    public Avatar(
+            Vector2 topLeftCorner, AvatarControls controls, AvatarAnimations animations,
+            DoubleUnaryOperator surfaceHeightAt
+    ) {
         super(topLeftCorner, Vector2.ONES.mult(AVATAR_SIZE), null);
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         transform().setAccelerationY(GRAVITY);
-        this.inputListener = inputListener;
+        this.controls = controls;
+        this.surfaceHeightAt = surfaceHeightAt;
         this.setTag(AVATAR_TAG);
 
-        createAnimationRenderables(imageReader); // create animation renderables for all 3 states
+        // Create animations for all 3 states, over the shared frames
+        this.idleAnimationRenderable = animations.createIdleAnimation();
+        this.runAnimationRenderable = animations.createRunAnimation();
+        this.jumpAnimationRenderable = animations.createJumpAnimation();
         this.renderer().setRenderable(idleAnimationRenderable); // set starting animation to idle
 
         this.onJumpComponents = new ArrayList<>();
     }
 
-    /**
-     * Creates the idle animation for the avatar using a series of images.
-     * This method reads image files for each frame of the idle animation,
-     * combines them into an AnimationRenderable object, and sets it as the
-     * avatar's idle animation.
-     *
-     * @param imageReader The ImageReader instance used to load images for the idle animation.
-     */
-    private void createIdleAnimation(ImageReader imageReader) {
-        Renderable[] clips = {
-                imageReader.readImage(IDLE_0_ANIMATION_PATH, false),
-                imageReader.readImage(IDLE_1_ANIMATION_PATH, false),
-                imageReader.readImage(IDLE_2_ANIMATION_PATH, false),
-                imageReader.readImage(IDLE_3_ANIMATION_PATH, false)
-        };
-        this.idleAnimationRenderable = new AnimationRenderable(clips, TIME_BETWEEN_JUMP_IDLE_CLIPS);
-    }
-
-    /**
-     * Creates the jump animation for the avatar using a series of images.
-     * This method reads image files for each frame of the jump animation,
-     * combines them into an AnimationRenderable object, and sets it as the
-     * avatar's jump animation.
-     *
-     * @param imageReader The ImageReader instance used to load images for the jump animation.
-     */
-    private void createJumpAnimation(ImageReader imageReader) {
-        Renderable[] clips = {
-                imageReader.readImage(JUMP_0_ANIMATION_PATH, false),
-                imageReader.readImage(JUMP_1_ANIMATION_PATH, false),
-                imageReader.readImage(JUMP_2_ANIMATION_PATH, false),
-                imageReader.readImage(JUMP_3_ANIMATION_PATH, false)
-        };
-        this.jumpAnimationRenderable = new AnimationRenderable(clips, TIME_BETWEEN_JUMP_IDLE_CLIPS);
-    }
-
-    /**
-     * Creates the run animation for the avatar using a series of images.
-     * This method reads image files for each frame of the run animation,
-     * combines them into an AnimationRenderable object, and sets it as the
-     * avatar's run animation.
-     *
-     * @param imageReader The ImageReader instance used to load images for the run animation.
-     */
-    private void createRunAnimation(ImageReader imageReader) {
-        Renderable[] clips = {
-                imageReader.readImage(RUN_0_ANIMATION_PATH, false),
-                imageReader.readImage(RUN_1_ANIMATION_PATH, false),
-                imageReader.readImage(RUN_2_ANIMATION_PATH, false),
-                imageReader.readImage(RUN_3_ANIMATION_PATH, false),
-                imageReader.readImage(RUN_4_ANIMATION_PATH, false),
-                imageReader.readImage(RUN_5_ANIMATION_PATH, false)
-        };
-        this.runAnimationRenderable = new AnimationRenderable(clips, TIME_BETWEEN_RUN_CLIPS);
-    }
-
-    /**
-     * Creates the renderables for avatar animations, including idle, jump, and run animations.
-     *
-     * @param imageReader The ImageReader instance used to load images for the animations.
-     */
-    private void createAnimationRenderables(ImageReader imageReader) {
-        createIdleAnimation(imageReader);
-        createJumpAnimation(imageReader);
-        createRunAnimation(imageReader);
-    }
-
     /**
      * Returns true if the avatar is idle, false otherwise.
      * @param isPressingLeft The boolean value of whether the left arrow key is pressed.
@@ -211,6 +145,7 @@ public class Avatar extends GameObject {
         // Handle jump movement, including energy consumption and animations
         if (isPressingJump && getVelocity().y() == 0 && energy >= JUMP_ENERGY_CONSUMPTION) {
             transform().setVelocityY(VELOCITY_Y);
+            transform().setAccelerationY(GRAVITY);
             energy -= JUMP_ENERGY_CONSUMPTION;
             this.renderer().setRenderable(jumpAnimationRenderable);
 
@@ -261,6 +196,24 @@ public class Avatar extends GameObject {
         return energy;
     }
 
+    /**
+     * Sets the energy value of the avatar, e.g. when a saved game is resumed.
+     * @param energy The energy value, clamped to [0, MAX_ENERGY_VALUE].
+     */
+    public void setEnergy(double energy) {
+        this.energy = Math.max(0, Math.min(MAX_ENERGY_VALUE, energy));
+    }
+
+    /**
+     * Returns whether the avatar should collide with another object: only trunks and fruits are of interest.
+     * @param other The other object.
+     * @return {@code true} if the other object is a trunk or a fruit, {@code false} otherwise.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return COLLISION_INTEREST.test(other);
+    }
+
     /**
      * Add a given amount of energy to the Avatar's energy, as long as it is within the max boundary.
      * @param energyAmountToAdd The amount of energy to add.
@@ -293,17 +246,26 @@ public class Avatar extends GameObject {
      *          the energy value increases by 1 point.
      *      </li>
      * </ul>
+     * <p>
+     *      The game calls this method once per fixed simulation step rather than once per rendered frame,
+     *      so the energy rates above are per step, and do not depend on the frame rate.
+     *      The keys above are read through the avatar's controls,
+     *      so AI-driven characters follow the same rules.
+     * </p>
      * @param deltaTime The time since the last update.
      */
     @Override
     public void update(float deltaTime) {
+        float previousX = getTopLeftCorner().x();
         super.update(deltaTime);
+        AllocationMonitor.beginSection(); // The avatar's own logic, after the engine moved it
+        resolveTerrainContact(previousX);
         float xVel = 0;
 
-        // Handle user movement input
-        boolean isPressingLeft = inputListener.isKeyPressed(KeyEvent.VK_LEFT);
-        boolean isPressingRight = inputListener.isKeyPressed(KeyEvent.VK_RIGHT);
-        boolean isPressingJump = inputListener.isKeyPressed(KeyEvent.VK_SPACE);
+        // Handle movement input
+        boolean isPressingLeft = controls.isMovingLeft();
+        boolean isPressingRight = controls.isMovingRight();
+        boolean isPressingJump = controls.isJumping();
 
         // boolean representing idle state for the avatar
         boolean isIdle = isIdle(isPressingLeft, isPressingRight, isPressingJump);
@@ -314,20 +276,56 @@ public class Avatar extends GameObject {
         handleJump(isPressingJump);
 
         handleEnergyRegeneration(isIdle);
+        AllocationMonitor.endSection();
     }
 
     /**
-     * Override the onCollisionEnter method to prevent the avatar from falling through the terrain.
-     * @param other The other GameObject involved in the collision.
-     * @param collision The collision object that contains information about the collision.
-     *
-     * @see Terrain#BLOCK_TAG
+     * Returns the highest point (i.e., the smallest y-coordinate) of the terrain's surface
+     * under a horizontal span.
+     * @param left The x-coordinate of the span's left edge.
+     * @param width The width of the span.
+     * @return The smallest surface height of the block columns the span overlaps.
      */
-    @Override
-    public void onCollisionEnter(GameObject other, Collision collision) {
-        super.onCollisionEnter(other, collision);
-        if (other.getTag().equals(Terrain.BLOCK_TAG)) {
-           this.transform().setVelocityY(0);
+    private float highestSurfaceUnder(float left, float width) {
+        float right = left + width - WALL_TOLERANCE;
+        float highest = (float) surfaceHeightAt.applyAsDouble(right);
+        for (float x = left; x < right; x += Block.SIZE) {
+            highest = Math.min(highest, (float) surfaceHeightAt.applyAsDouble(x));
+        }
+        return highest;
+    }
+
+    /**
+     * Resolves the avatar's contact with the terrain after it moved.
+     * <p>
+     *     If the avatar moved horizontally into a column that rises above its feet, the horizontal move is
+     *     undone. Then, if the avatar's feet are at or below the surface while it is not moving up,
+     *     it is placed on the surface and its vertical velocity is zeroed, i.e., it lands.
+     * </p>
+     * @param previousX The x-coordinate of the avatar's top-left corner before it moved.
+     */
+    private void resolveTerrainContact(float previousX) {
+        Vector2 dimensions = getDimensions();
+        float x = getTopLeftCorner().x();
+        float feet = getTopLeftCorner().y() + dimensions.y();
+        if (x != previousX && highestSurfaceUnder(x, dimensions.x()) < feet - WALL_TOLERANCE) {
+            x = previousX; // Walked into a wall
+        }
+        float surface = highestSurfaceUnder(x, dimensions.x());
+        boolean isOnGround = feet >= surface && getVelocity().y() >= 0;
+        if (isOnGround && (feet != surface || x != getTopLeftCorner().x())) { // Landed, or hit a wall
+            setTopLeftCorner(Vector2.of(x, surface - dimensions.y()));
+        } else if (!isOnGround && x != getTopLeftCorner().x()) {
+            setTopLeftCorner(Vector2.of(x, getTopLeftCorner().y()));
+        }
+        if (isOnGround && getVelocity().y() != 0) {
+            transform().setVelocityY(0);
+        }
+        // Gravity is suspended while on the ground, so standing or walking does not move the avatar
+        // into the ground only to be corrected (and reallocate its position) every step
+        float gravity = isOnGround ? 0 : GRAVITY;
+        if (transform().getAcceleration().y() != gravity) {
+            transform().setAccelerationY(gravity);
         }
     }
 
@@ -0,0 +1,114 @@
+package pepse.world;
+
+import danogl.gui.rendering.AnimationRenderable;
+import danogl.gui.rendering.Renderable;
+
+import pepse.util.SpriteAtlas;
+import pepse.world.daynight.NightShade;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The frames of the avatar's idle, jump and run animations, shared by every avatar-like character.
+ * <p>
+ *     The frames are sliced once from the avatar's sprite atlas, which is read in a single image read.
+ *     Every character then creates its own animations over the shared frames:
+ *     an animation only keeps its playback state, so a character costs no image data of its own.
+ *     Each frame holds a darkened copy for every shade level of the night, so the characters
+ *     follow the day-night cycle like the rest of the scene.
+ * </p>
+ * <p>
+ *     The atlas is packed from the individual frame images in {@code assets} with {@link SpriteAtlas}:
+ *     <pre>
+ *     java pepse.util.SpriteAtlas assets/avatar_atlas.png assets/avatar_atlas.txt \
+ *         assets/idle_?.png assets/jump_?.png assets/run_?.png
+ *     </pre>
+ *     and should be repacked whenever a frame changes.
+ * </p>
+ *
+ * @see Avatar
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class AvatarAnimations {
+
+    // Private constants
+    private static final String ATLAS_IMAGE_PATH = "assets/avatar_atlas.png"; /* The packed frames */
+    private static final String ATLAS_INDEX_PATH = "assets/avatar_atlas.txt"; /* The frame bounds */
+    /* The time between each jump and idle animation clip */
+    private static final float TIME_BETWEEN_JUMP_IDLE_CLIPS = 0.35f;
+    private static final float TIME_BETWEEN_RUN_CLIPS = 0.15f; /* The time between each run animation clip */
+    /* Names of the frames used in each animation */
+    private static final String[] IDLE_FRAMES = {"idle_0", "idle_1", "idle_2", "idle_3"};
+    private static final String[] JUMP_FRAMES = {"jump_0", "jump_1", "jump_2", "jump_3"};
+    private static final String[] RUN_FRAMES = {"run_0", "run_1", "run_2", "run_3", "run_4", "run_5"};
+
+    // Private final fields
+    private final Renderable[] idleClips; /* The shared frames of the idle animation */
+    private final Renderable[] jumpClips; /* The shared frames of the jump animation */
+    private final Renderable[] runClips; /* The shared frames of the run animation */
+
+    /**
+     * Constructs a new AvatarAnimations.
+     *
+     * @param atlas The sprite atlas holding the avatar's frames.
+     */
+    private AvatarAnimations(SpriteAtlas atlas) {
+        this.idleClips = shadedFrames(atlas, IDLE_FRAMES);
+        this.jumpClips = shadedFrames(atlas, JUMP_FRAMES);
+        this.runClips = shadedFrames(atlas, RUN_FRAMES);
+    }
+
+    /**
+     * Slices the given frames out of the atlas, each following the darkness of the night.
+     *
+     * @param atlas The sprite atlas holding the avatar's frames.
+     * @param names The names of the frames, in order.
+     * @return A shaded renderable for each of the frames, in the same order.
+     */
+    private static Renderable[] shadedFrames(SpriteAtlas atlas, String[] names) {
+        BufferedImage[] images = atlas.frameImages(names);
+        Renderable[] frames = new Renderable[images.length];
+        for (int i = 0; i < images.length; i++) {
+            frames[i] = NightShade.shade(images[i]);
+        }
+        return frames;
+    }
+
+    /**
+     * Loads the avatar's frames from its sprite atlas.
+     * Should be called once, and the result shared by all the characters.
+     *
+     * @return The shared animation frames.
+     */
+    public static AvatarAnimations load() {
+        return new AvatarAnimations(SpriteAtlas.load(ATLAS_IMAGE_PATH, ATLAS_INDEX_PATH));
+    }
+
+    /**
+     * Creates a new idle animation over the shared frames.
+     *
+     * @return An idle animation with its own playback state.
+     */
+    public AnimationRenderable createIdleAnimation() {
+        return new AnimationRenderable(idleClips, TIME_BETWEEN_JUMP_IDLE_CLIPS);
+    }
+
+    /**
+     * Creates a new jump animation over the shared frames.
+     *
+     * @return A jump animation with its own playback state.
+     */
+    public AnimationRenderable createJumpAnimation() {
+        return new AnimationRenderable(jumpClips, TIME_BETWEEN_JUMP_IDLE_CLIPS);
+    }
+
+    /**
+     * Creates a new run animation over the shared frames.
+     *
+     * @return A run animation with its own playback state.
+     */
+    public AnimationRenderable createRunAnimation() {
+        return new AnimationRenderable(runClips, TIME_BETWEEN_RUN_CLIPS);
+    }
+}
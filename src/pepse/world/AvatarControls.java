@@ -0,0 +1,38 @@
+package pepse.world;
+
+/**
+ * The controls an avatar-like character is driven by.
+ * <p>
+ *     The avatar only asks its controls which of its three actions are requested,
+ *     so the same movement, energy and animation logic can be driven by the keyboard
+ *     or by any kind of AI.
+ * </p>
+ *
+ * @see Avatar
+ * @see KeyboardControls
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public interface AvatarControls {
+
+    /**
+     * Returns whether moving left is requested.
+     *
+     * @return {@code true} if the character should move left, {@code false} otherwise.
+     */
+    boolean isMovingLeft();
+
+    /**
+     * Returns whether moving right is requested.
+     *
+     * @return {@code true} if the character should move right, {@code false} otherwise.
+     */
+    boolean isMovingRight();
+
+    /**
+     * Returns whether jumping is requested.
+     *
+     * @return {@code true} if the character should jump, {@code false} otherwise.
+     */
+    boolean isJumping();
+}
@@ -4,6 +4,7 @@ import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.world.gen.WorldGenerator;
 
 /**
  * This class represents a block in the game.
@@ -19,7 +20,7 @@ public class Block extends GameObject {
     /**
      * The size of a block in pixels.
      */
-    public static final int SIZE = 30; // Block size - Do not change.
+    public static final int SIZE = WorldGenerator.BLOCK_SIZE; // Block size - Do not change.
 
     /**
      * Creates a new block of size (SIZE x SIZE) at the specified position with the specified renderable.
@@ -0,0 +1,57 @@
+package pepse.world;
+
+import danogl.gui.UserInputListener;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Avatar controls driven by the keyboard: the arrow keys move, and the space key jumps.
+ *
+ * @see AvatarControls
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class KeyboardControls implements AvatarControls {
+
+    // Private final fields
+    private final UserInputListener inputListener; /* The input listener the keys are read from */
+
+    /**
+     * Constructs new KeyboardControls.
+     *
+     * @param inputListener The input listener the keys are read from.
+     */
+    public KeyboardControls(UserInputListener inputListener) {
+        this.inputListener = inputListener;
+    }
+
+    /**
+     * Returns whether the left arrow key is pressed.
+     *
+     * @return {@code true} if the left arrow key is pressed, {@code false} otherwise.
+     */
+    @Override
+    public boolean isMovingLeft() {
+        return inputListener.isKeyPressed(KeyEvent.VK_LEFT);
+    }
+
+    /**
+     * Returns whether the right arrow key is pressed.
+     *
+     * @return {@code true} if the right arrow key is pressed, {@code false} otherwise.
+     */
+    @Override
+    public boolean isMovingRight() {
+        return inputListener.isKeyPressed(KeyEvent.VK_RIGHT);
+    }
+
+    /**
+     * Returns whether the space key is pressed.
+     *
+     * @return {@code true} if the space key is pressed, {@code false} otherwise.
+     */
+    @Override
+    public boolean isJumping() {
+        return inputListener.isKeyPressed(KeyEvent.VK_SPACE);
+    }
+}
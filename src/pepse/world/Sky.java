@@ -3,14 +3,24 @@ package pepse.world;
 import danogl.GameObject;
 import danogl.components.CoordinateSpace;
 import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.world.daynight.Night;
 
 import java.awt.Color;
 
 /**
  * This class is responsible for creating the sky GameObject.
  * The sky is a GameObject that is a rectangle that covers the entire window.
+ * <p>
+ *     The sky also composites the darkness of the night into its own color:
+ *     its colors are precomputed once into a lookup table over the day-night cycle,
+ *     and every frame the sky only picks the entry of the current phase.
+ *     This replaces a full-window night overlay, which was alpha-blended over the whole screen every frame;
+ *     the rest of the scene is darkened the same way, by {@link pepse.world.daynight.NightShade}.
+ * </p>
  *
+ * @see Night
  * @author Noam Kimhi
  * @author Or Forshmit
  */
@@ -20,27 +30,53 @@ public class Sky {
     private static final String SKY_TAG = "sky"; /* The tag of the sky GameObject. */
     /* The base color of the sky - 0x80C6E5 */
     private static final Color BASIC_SKY_COLOR = new Color(128, 198, 229);
+    private static final int COLOR_TABLE_SIZE = 256; /* The number of precomputed sky colors per cycle */
 
     /**
      * Private constructor to prevent instantiation.
      */
     private Sky() {}
 
+    /**
+     * Precomputes the sky's renderable for each phase of the day-night cycle,
+     * darkening the base color of the sky by the darkness of the night.
+     * @return The renderables, indexed by the phase of the cycle.
+     */
+    private static Renderable[] createColorTable() {
+        Renderable[] colorTable = new Renderable[COLOR_TABLE_SIZE];
+        for (int entry = 0; entry < COLOR_TABLE_SIZE; entry++) {
+            // Black over the sky at the night's opacity, composited once rather than every frame
+            float brightness = 1 - Night.darknessAt((float) entry / COLOR_TABLE_SIZE);
+            colorTable[entry] = new RectangleRenderable(new Color(
+                    Math.round(BASIC_SKY_COLOR.getRed() * brightness),
+                    Math.round(BASIC_SKY_COLOR.getGreen() * brightness),
+                    Math.round(BASIC_SKY_COLOR.getBlue() * brightness)
+            ));
+        }
+        return colorTable;
+    }
+
     /**
      * Creates a sky GameObject.
-     * The sky is a GameObject that is a rectangle that covers the entire window.
+     * The sky is a GameObject that is a rectangle that covers the entire window,
+     * and its color follows the day-night cycle.
      * @param windowDimensions The dimensions of the window.
+     * @param clock The world clock, whose day phase determines the color of the sky.
      * @return The sky GameObject.
      */
-    public static GameObject create(Vector2 windowDimensions) {
-        GameObject sky = new GameObject(
-                Vector2.ZERO, windowDimensions,
-                new RectangleRenderable(BASIC_SKY_COLOR)
-        );
+    public static GameObject create(Vector2 windowDimensions, WorldClock clock) {
+        Renderable[] colorTable = createColorTable();
+        GameObject sky = new GameObject(Vector2.ZERO, windowDimensions, colorTable[0]);
 
         sky.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         sky.setTag(SKY_TAG);
 
+        // Pick the precomputed color of the current phase of the cycle
+        clock.addPhaseListener(dayPhase -> {
+            int entry = (int) (dayPhase * COLOR_TABLE_SIZE);
+            sky.renderer().setRenderable(colorTable[Math.min(entry, COLOR_TABLE_SIZE - 1)]);
+        });
+
         return sky;
     }
 
@@ -5,16 +5,30 @@ import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
-import pepse.util.LocationCalculator;
-import pepse.util.NoiseGenerator;
+import pepse.world.daynight.NightShade;
+import pepse.world.gen.ChunkData;
+import pepse.world.gen.HeightField;
+import pepse.world.gen.WorldGenerator;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.ObjIntConsumer;
 
 /**
- * The Terrain class is responsible for generating the terrain of the game.
- * The terrain is generated in blocks of a fixed size.
+ * The Terrain class is responsible for creating the terrain of the game.
+ * The terrain is made of blocks of a fixed size.
+ * <p>
+ *     The shape of the terrain is a {@link HeightField}, and the content of every chunk is generated by
+ *     the engine-independent {@link WorldGenerator}. This class only turns generated chunks into blocks.
+ * </p>
+ * <p>
+ *     The terrain also serves as a height field: {@link #surfaceHeightAt(float)} lets moving objects
+ *     resolve their contact with the ground analytically, so terrain blocks do not need to take part
+ *     in collision detection.
+ * </p>
+ * <p>
+ *     Blocks are placed, and the field is queried, in the game's coordinates, which are converted to
+ *     world columns through the {@link WorldOrigin}, so the terrain stays exact however far the avatar walks.
+ * </p>
  *
  * @see Block
  *
@@ -31,23 +45,32 @@ public class Terrain {
 
     // Private constants
     private static final float TWO_THIRDS_FACTOR = 2 / 3f; /* i.e., the ratio of the ground height at x = 0 */
-    private static final int TERRAIN_DEPTH = 25; /* The depth of the terrain */
-    private static final double NOISE_GENERATION_FACTOR = Block.SIZE * 6; /* Noise generation factor */
     /* The base color of the terrain blocks */
     private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
+    /* Renderables of approximations of the ground color, shared by all the blocks */
+    private static final Renderable[] groundRenderables = createGroundRenderables();
 
     // Private final fields
-    private final float groundHeightAtX0; /* i.e., the height of the ground at x = 0 */
-    private final NoiseGenerator perlinNoiseGenerator; /* The Perlin noise generator */
+    private final HeightField heightField; /* The height field of the terrain */
+    private final WorldOrigin origin; /* The origin of the game's coordinates within the world */
 
     /**
      * Constructor for the Terrain class.
      * @param windowDimensions The dimensions of the window.
      * @param seed The seed for the random number generator.
+     * @param origin The origin of the game's coordinates within the world.
      */
-    public Terrain (Vector2 windowDimensions, int seed) {
-        groundHeightAtX0 = windowDimensions.y() * TWO_THIRDS_FACTOR;
-        this.perlinNoiseGenerator = new NoiseGenerator(seed, (int) groundHeightAtX0);
+    public Terrain (Vector2 windowDimensions, int seed, WorldOrigin origin) {
+        this.heightField = new HeightField(windowDimensions.y() * TWO_THIRDS_FACTOR, seed);
+        this.origin = origin;
+    }
+
+    /**
+     * Returns the height field of the terrain, from which the world is generated.
+     * @return The height field.
+     */
+    public HeightField getHeightField() {
+        return heightField;
     }
 
     /**
@@ -56,39 +79,61 @@ public class Terrain {
      * @return The height of the ground at the given x position.
      */
     public float groundHeightAt(float x) {
-        float noise = (float) perlinNoiseGenerator.noise(x, NOISE_GENERATION_FACTOR);
-        return groundHeightAtX0 + noise;
+        return heightField.groundHeightAt(origin.toWorldX(x));
     }
 
     /**
-     * Creates a list of blocks in the given range.
-     * @param minX The minimum x position.
-     * @param maxX The maximum x position.
-     * @return A list of blocks in the given range.
+     * Creates the shared renderables of the terrain blocks, one for every generated color index,
+     * each with an approximate ground color that follows the darkness of the night.
+     * @return The shared renderables.
      */
-    public List<GameObject> createInRange(int minX, int maxX) {
-        List<GameObject> blockList = new ArrayList<>();
+    private static Renderable[] createGroundRenderables() {
+        Renderable[] renderables = new Renderable[WorldGenerator.GROUND_COLOR_VARIANTS];
+        for (int i = 0; i < renderables.length; i++) {
+            renderables[i] = NightShade.shade(
+                    ColorSupplier.approximateColor(BASE_GROUND_COLOR), RectangleRenderable::new
+            );
+        }
+        return renderables;
+    }
 
-        int startX = LocationCalculator.getClosestMultToBlockSize(minX);
-        maxX = LocationCalculator.getClosestMultToBlockSize(maxX);
+    /**
+     * Returns the height of the top of the surface block in the block column containing the given x position.
+     * <p>
+     *     Unlike {@link #groundHeightAt(float)}, the result is aligned to the block grid, so it is exactly
+     *     where the top terrain block of the column is placed. It is a table lookup,
+     *     which makes this method cheap enough to be used for collision every frame.
+     * </p>
+     * @param x The x position.
+     * @return The y-coordinate of the top of the column's surface block.
+     */
+    public float surfaceHeightAt(float x) {
+        return heightField.columnSurfaceHeight(origin.toWorldColumn(x));
+    }
 
-        // Add blocks at increasing X positions to the list
-        for (int x = startX; x < maxX; x += Block.SIZE) {
+    /**
+     * Creates the blocks of a generated chunk, and hands each of them to the chunk as it is created,
+     * so no list of the blocks is allocated.
+     * @param chunk The generated chunk.
+     * @param addToChunk A function for adding a GameObject to the chunk at a specified layer.
+     * @param layer The layer of the blocks.
+     */
+    public void createBlocks(ChunkData chunk, ObjIntConsumer<GameObject> addToChunk, int layer) {
+        // Add blocks at increasing X positions to the chunk
+        for (int column = 0; column < chunk.columnCount(); column++) {
 
-            float y = (float) LocationCalculator.getClosestMultToBlockSize(groundHeightAt(x));
+            float x = origin.toLocalX(chunk.firstColumn() + column);
+            float y = chunk.surfaceHeight(column);
 
-            for (int i = 0; i < TERRAIN_DEPTH; i++) {
+            for (int i = 0; i < WorldGenerator.TERRAIN_DEPTH; i++) {
 
-                Renderable blockRenderer = new RectangleRenderable(
-                        // Create a rectangle with approximate color
-                        ColorSupplier.approximateColor(BASE_GROUND_COLOR)
-                );
+                // Use the shared rectangle of the block's generated color
+                Renderable blockRenderer = groundRenderables[chunk.groundColor(column, i)];
 
                 Block block = new Block(Vector2.of(x, y + i * Block.SIZE), blockRenderer);
                 block.setTag(BLOCK_TAG); // set block tag to "ground"
-                blockList.add(block); // add to blockList
+                addToChunk.accept(block, layer);
             }
         }
-        return blockList;
     }
 }
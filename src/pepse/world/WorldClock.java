@@ -0,0 +1,186 @@
+package pepse.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.DoubleConsumer;
+
+/**
+ * The single clock of the world, which drives every time-dependent system.
+ * <p>
+ *     The clock is ticked once per simulation step. Systems either query it (the world time,
+ *     or the phase of the day-night cycle), subscribe to it to be notified of the phase on every tick,
+ *     or schedule events on it to run once the world time reaches them.
+ *     Since all of them are driven by the same tick, they always agree on the phase of the day,
+ *     and pausing or scaling the clock pauses or scales all of them at once.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class WorldClock {
+
+    // Private final fields
+    private final float cycleLength; /* The length of a day-night cycle in seconds */
+    private final List<DoubleConsumer> phaseListeners; /* Notified of the day phase on every tick */
+    private final PriorityQueue<ScheduledEvent> events; /* Scheduled events, the earliest first */
+
+    // Private fields
+    private double time; /* The world time in seconds */
+    private float timeScale = 1; /* How many world seconds pass in a simulated second */
+    private boolean isPaused; /* Whether the world time is stopped */
+    private long scheduledEvents; /* The number of events scheduled so far, orders events of the same time */
+
+    /**
+     * An event scheduled to run at a given world time.
+     *
+     * @param time The world time at which the event runs.
+     * @param order The order in which the event was scheduled, breaks ties between events of the same time.
+     * @param action The action of the event.
+     */
+    private record ScheduledEvent(double time, long order, Runnable action)
+            implements Comparable<ScheduledEvent> {
+
+        /**
+         * Compares events by their time, and then by the order in which they were scheduled.
+         *
+         * @param other The event to compare to.
+         * @return A negative number if this event runs first, a positive number otherwise.
+         */
+        @Override
+        public int compareTo(ScheduledEvent other) {
+            int byTime = Double.compare(time, other.time);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+
+    /**
+     * Constructs a new WorldClock, starting at the middle of the day.
+     *
+     * @param cycleLength The length of a day-night cycle in seconds.
+     */
+    public WorldClock(float cycleLength) {
+        this.cycleLength = cycleLength;
+        this.phaseListeners = new ArrayList<>();
+        this.events = new PriorityQueue<>();
+    }
+
+    /**
+     * Advances the world time, runs the events that became due, and notifies the phase listeners.
+     * Should be called once per simulation step.
+     *
+     * @param deltaTime The simulated time elapsed since the last tick, in seconds.
+     */
+    public void tick(float deltaTime) {
+        if (isPaused) {
+            return;
+        }
+        time += deltaTime * timeScale;
+        synchronized (events) {
+            while (!events.isEmpty() && events.peek().time() <= time) {
+                events.poll().action().run();
+            }
+        }
+        float dayPhase = getDayPhase();
+        for (int i = 0; i < phaseListeners.size(); i++) {
+            phaseListeners.get(i).accept(dayPhase);
+        }
+    }
+
+    /**
+     * Subscribes a listener to the phase of the day-night cycle.
+     * The listener is notified right away, and then on every tick.
+     *
+     * @param listener A consumer of the day phase, in [0, 1).
+     */
+    public void addPhaseListener(DoubleConsumer listener) {
+        phaseListeners.add(listener);
+        listener.accept(getDayPhase());
+    }
+
+    /**
+     * Schedules an action to run once the given amount of world time has passed.
+     * May be called from any thread, e.g. by objects created during a parallel generation of the world.
+     *
+     * @param delay The world time (in seconds) until the action runs.
+     * @param action The action to run.
+     */
+    public void schedule(float delay, Runnable action) {
+        synchronized (events) {
+            events.add(new ScheduledEvent(time + delay, scheduledEvents++, action));
+        }
+    }
+
+    /**
+     * Returns the world time.
+     *
+     * @return The world time in seconds since the clock was created.
+     */
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Sets the world time, e.g. when a saved game is resumed.
+     * Events that were already scheduled keep their world time.
+     *
+     * @param time The world time in seconds.
+     */
+    public void setTime(double time) {
+        this.time = time;
+    }
+
+    /**
+     * Returns the phase of the day-night cycle.
+     *
+     * @return The day phase, in [0, 1), where 0 is the middle of the day and 0.5 is midnight.
+     */
+    public float getDayPhase() {
+        return (float) (time % cycleLength / cycleLength);
+    }
+
+    /**
+     * Returns the length of a day-night cycle.
+     *
+     * @return The length of a cycle in seconds.
+     */
+    public float getCycleLength() {
+        return cycleLength;
+    }
+
+    /**
+     * Pauses or resumes the world time.
+     *
+     * @param isPaused {@code true} to stop the world time, {@code false} to resume it.
+     */
+    public void setPaused(boolean isPaused) {
+        this.isPaused = isPaused;
+    }
+
+    /**
+     * Returns whether the world time is paused.
+     *
+     * @return {@code true} if the world time is stopped, {@code false} otherwise.
+     */
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Sets how fast the world time passes relative to the simulation.
+     *
+     * @param timeScale The number of world seconds that pass in a simulated second.
+     */
+    public void setTimeScale(float timeScale) {
+        this.timeScale = timeScale;
+    }
+
+    /**
+     * Returns how fast the world time passes relative to the simulation.
+     *
+     * @return The number of world seconds that pass in a simulated second.
+     */
+    public float getTimeScale() {
+        return timeScale;
+    }
+}
@@ -0,0 +1,84 @@
+package pepse.world;
+
+/**
+ * The floating origin of the game's coordinates within the world.
+ * <p>
+ *     Positions of GameObjects are floats, whose spacing grows with their magnitude: far enough from x = 0,
+ *     it exceeds a pixel, and placement, collision and physics degrade. So the game's coordinates are local:
+ *     x = 0 of the game is the left edge of a block column of the world, the origin column,
+ *     which is tracked exactly in a {@code long}. When the avatar walks far from x = 0, the game rebases:
+ *     every live object is shifted back by a whole number of columns, and the origin column is advanced
+ *     by the same number, so the world does not move while its coordinates stay small.
+ * </p>
+ * <p>
+ *     Everything that depends on the world itself rather than on the game's coordinates,
+ *     i.e. the height field and generation, is addressed in world columns, converted with this origin.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class WorldOrigin {
+
+    // Private fields
+    private long column; /* The block column of the world at x = 0 of the game's coordinates */
+
+    /**
+     * Constructs a new WorldOrigin.
+     *
+     * @param column The block column of the world at x = 0 of the game's coordinates.
+     */
+    public WorldOrigin(long column) {
+        this.column = column;
+    }
+
+    /**
+     * Returns the block column of the world at x = 0 of the game's coordinates.
+     *
+     * @return The origin column.
+     */
+    public long getColumn() {
+        return column;
+    }
+
+    /**
+     * Moves the origin along the world. The caller is responsible for shifting every live object
+     * by the opposite amount, i.e. by {@code -columns * Block.SIZE} pixels.
+     * Should only be called while no chunk is being generated.
+     *
+     * @param columns The number of block columns to move the origin by.
+     */
+    public void shift(long columns) {
+        column += columns;
+    }
+
+    /**
+     * Returns the x-coordinate, in the game's coordinates, of the left edge of a block column of the world.
+     *
+     * @param worldColumn The block column of the world.
+     * @return The x-coordinate of the column.
+     */
+    public float toLocalX(long worldColumn) {
+        return (float) ((worldColumn - column) * Block.SIZE);
+    }
+
+    /**
+     * Returns the block column of the world that contains an x-coordinate of the game's coordinates.
+     *
+     * @param x The x-coordinate.
+     * @return The block column of the world.
+     */
+    public long toWorldColumn(float x) {
+        return column + (long) Math.floor(x / Block.SIZE);
+    }
+
+    /**
+     * Returns the x-coordinate of the world that corresponds to an x-coordinate of the game's coordinates.
+     *
+     * @param x The x-coordinate, in the game's coordinates.
+     * @return The x-coordinate in the world.
+     */
+    public double toWorldX(float x) {
+        return (double) column * Block.SIZE + x;
+    }
+}
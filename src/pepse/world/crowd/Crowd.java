@@ -0,0 +1,201 @@
+package pepse.world.crowd;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import pepse.world.Avatar;
+import pepse.world.AvatarAnimations;
+import pepse.world.AvatarControls;
+
+import java.util.Random;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A crowd of autonomous walkers, used to stress the world with many moving actors.
+ * <p>
+ *     Every walker is a regular {@link Avatar}, with the same movement, energy and animation logic,
+ *     driven by AI controls instead of the keyboard. The AI of all the walkers is updated in a single
+ *     batched pass over primitive arrays, once per simulation step: each walker walks in a random direction
+ *     or rests for a random duration, jumps over walls it walked into, and rests when it is out of energy.
+ *     The walkers' controls only read the decisions of that pass.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class Crowd {
+
+    /**
+     * The tag of the walkers' GameObjects.
+     */
+    public static final String WALKER_TAG = "walker";
+
+    // Private constants
+    private static final byte REST = 0; /* The walker stands still */
+    private static final byte WALK_LEFT = 1; /* The walker walks to the left */
+    private static final byte WALK_RIGHT = 2; /* The walker walks to the right */
+    private static final float MIN_DECISION_INTERVAL = 0.5f; /* Minimal time between decisions, in seconds */
+    private static final float MAX_DECISION_INTERVAL = 3; /* Maximal time between decisions, in seconds */
+    private static final double REST_PROBABILITY = 0.3; /* Chance that a decision is to rest */
+    private static final double JUMP_PROBABILITY = 0.1; /* Chance that a decision includes a jump */
+    private static final double MIN_WALKING_ENERGY = 20; /* Walkers with less energy rest */
+    private static final float SPAWN_HEIGHT_OFFSET = 100; /* The height above the ground walkers spawn at */
+
+    // Private final fields
+    private final Avatar[] walkers; /* The walkers of the crowd */
+    private final byte[] intents; /* The current intent of each walker: rest, or walk in a direction */
+    private final boolean[] jumps; /* Whether each walker should jump in the current step */
+    private final float[] timeUntilDecision; /* The time left until each walker decides again */
+    private final float[] lastX; /* The x-coordinate of each walker at the previous step */
+    private final Random random; /* The random number generator used for decisions */
+
+    /**
+     * Constructs a new Crowd of walkers spread around a point of the world.
+     *
+     * @param size The number of walkers.
+     * @param centerX The x-coordinate around which the walkers are spawned.
+     * @param spread The maximal horizontal distance of a walker from the center.
+     * @param animations The animation frames shared by all the characters.
+     * @param surfaceHeightAt A function returning the height of the terrain's surface at an x-coordinate.
+     * @param seed The seed used for spawning and decisions.
+     */
+    public Crowd(
+            int size, float centerX, float spread, AvatarAnimations animations,
+            DoubleUnaryOperator surfaceHeightAt, int seed
+    ) {
+        this.walkers = new Avatar[size];
+        this.intents = new byte[size];
+        this.jumps = new boolean[size];
+        this.timeUntilDecision = new float[size];
+        this.lastX = new float[size];
+        this.random = new Random(seed);
+        for (int i = 0; i < size; i++) {
+            float x = centerX + (random.nextFloat() * 2 - 1) * spread;
+            float y = (float) surfaceHeightAt.applyAsDouble(x) - SPAWN_HEIGHT_OFFSET;
+            walkers[i] = new Avatar(Vector2.of(x, y), new WalkerControls(i), animations, surfaceHeightAt);
+            walkers[i].setTag(WALKER_TAG);
+            lastX[i] = x;
+        }
+    }
+
+    /**
+     * Adds all the walkers to the game.
+     *
+     * @param addToGame A BiConsumer function for adding a GameObject to the game at a specified layer.
+     * @param layer The layer the walkers are added to.
+     */
+    public void addTo(BiConsumer<GameObject, Integer> addToGame, int layer) {
+        for (Avatar walker : walkers) {
+            addToGame.accept(walker, layer);
+        }
+    }
+
+    /**
+     * Returns the number of walkers in the crowd.
+     *
+     * @return The number of walkers.
+     */
+    public int size() {
+        return walkers.length;
+    }
+
+    /**
+     * Shifts all the walkers horizontally, when the game's coordinates are rebased.
+     *
+     * @param deltaX The horizontal distance to shift the walkers by.
+     */
+    public void shift(float deltaX) {
+        Vector2 delta = Vector2.of(deltaX, 0);
+        for (int walker = 0; walker < walkers.length; walker++) {
+            walkers[walker].setTopLeftCorner(walkers[walker].getTopLeftCorner().add(delta));
+            lastX[walker] += deltaX; // Or a walker that stands still would seem to have moved
+        }
+    }
+
+    /**
+     * Makes a new decision for a walker.
+     *
+     * @param walker The index of the walker.
+     */
+    private void decide(int walker) {
+        timeUntilDecision[walker] = MIN_DECISION_INTERVAL +
+                                    random.nextFloat() * (MAX_DECISION_INTERVAL - MIN_DECISION_INTERVAL);
+        if (walkers[walker].getEnergy() < MIN_WALKING_ENERGY || random.nextDouble() < REST_PROBABILITY) {
+            intents[walker] = REST;
+            return;
+        }
+        intents[walker] = random.nextBoolean() ? WALK_LEFT : WALK_RIGHT;
+        jumps[walker] = random.nextDouble() < JUMP_PROBABILITY;
+    }
+
+    /**
+     * Updates the AI of all the walkers in one pass.
+     * Should be called once per simulation step, before the walkers themselves are updated.
+     *
+     * @param deltaTime The time elapsed since the last step in seconds.
+     */
+    public void update(float deltaTime) {
+        for (int walker = 0; walker < walkers.length; walker++) {
+            float x = walkers[walker].getTopLeftCorner().x();
+            // A walker that wanted to walk but did not move walked into a wall, so it jumps over it
+            jumps[walker] = intents[walker] != REST && x == lastX[walker];
+            lastX[walker] = x;
+            timeUntilDecision[walker] -= deltaTime;
+            if (timeUntilDecision[walker] <= 0) {
+                decide(walker);
+            }
+        }
+    }
+
+    /**
+     * The controls of a single walker, which read the decisions of the crowd's batched AI pass.
+     *
+     * @author Noam Kimhi
+     * @author Or Forshmit
+     */
+    private class WalkerControls implements AvatarControls {
+
+        // Private final fields
+        private final int walker; /* The index of the controlled walker */
+
+        /**
+         * Constructs new WalkerControls.
+         *
+         * @param walker The index of the controlled walker.
+         */
+        private WalkerControls(int walker) {
+            this.walker = walker;
+        }
+
+        /**
+         * Returns whether the walker decided to walk left.
+         *
+         * @return {@code true} if the walker should move left, {@code false} otherwise.
+         */
+        @Override
+        public boolean isMovingLeft() {
+            return intents[walker] == WALK_LEFT;
+        }
+
+        /**
+         * Returns whether the walker decided to walk right.
+         *
+         * @return {@code true} if the walker should move right, {@code false} otherwise.
+         */
+        @Override
+        public boolean isMovingRight() {
+            return intents[walker] == WALK_RIGHT;
+        }
+
+        /**
+         * Returns whether the walker should jump in the current step.
+         *
+         * @return {@code true} if the walker should jump, {@code false} otherwise.
+         */
+        @Override
+        public boolean isJumping() {
+            return jumps[walker];
+        }
+    }
+}
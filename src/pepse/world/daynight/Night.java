@@ -1,29 +1,27 @@
 package pepse.world.daynight;
 
-import danogl.GameObject;
-import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
-import danogl.gui.rendering.RectangleRenderable;
-import danogl.util.Vector2;
 import pepse.util.MathConstants;
 
-import java.awt.Color;
-
 /**
- * The Night class represents the night cycle in a game. It creates a game object
- * that transitions between a transparent state (day) and an opaque state (midnight),
- * simulating a day-night cycle. The object follows the camera and alternates its
- * opacity over time based on the configured cycle length.
+ * The Night class defines the darkness of the night cycle in the game.
+ * The darkness goes from none (the middle of the day) to its peak (midnight) and back,
+ * following a cubic curve, over a full day-night cycle.
+ * <p>
+ *     The darkness is not drawn as an overlay of its own:
+ *     the sky bakes it into its precomputed colors, and {@link NightShade} darkens the palettes
+ *     of the rest of the scene by it.
+ * </p>
  *
+ * @see pepse.world.Sky
+ * @see NightShade
  * @author Noam Kimhi
  * @author Or Forshmit
  */
 public class Night {
 
     // Private constants
-    private static final float MIDNIGHT_OPACITY = 0.5f; /* The opacity of the middle of the night */
-    private static final float DAY_OPACITY = 0; /* The opacity of the middle of the day */
-    private static final String NIGHT = "night"; /* The tag for the night object */
+    private static final float MIDNIGHT_OPACITY = 0.5f; /* The darkness of the middle of the night */
+    private static final float DAY_OPACITY = 0; /* The darkness of the middle of the day */
 
     /**
      * A private constructor to prevent instantiation of the Night class.
@@ -31,34 +29,16 @@ public class Night {
     private Night() {}
 
     /**
-     * Creates a night object that cycles between day and night.
-     * @param windowDimensions The dimensions of the window.
-     * @param cycleLength The length of the cycle in seconds.
-     * @return The night object.
+     * Returns the darkness of the night at the given phase of the day-night cycle.
+     * The darkness rises cubically during the first half of the cycle, and falls back during the second half.
+     * @param dayPhase The phase of the day-night cycle, in [0, 1), where 0 is the middle of the day.
+     * @return The darkness, as the opacity of black over the scene, in [0, 0.5].
      */
-    public static GameObject create(Vector2 windowDimensions, float cycleLength) {
-        GameObject night = new GameObject(
-                Vector2.ZERO,
-                windowDimensions,
-                new RectangleRenderable(Color.BLACK)
-        );
-
-        night.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES); // force the night to follow the camera
-        night.setTag(NIGHT); // set "night" tag
-
-        // Set up a transition to cycle day and night
-        new Transition<>(
-                night,
-                night.renderer()::setOpaqueness,
-                DAY_OPACITY,
-                MIDNIGHT_OPACITY,
-                Transition.CUBIC_INTERPOLATOR_FLOAT,
-                cycleLength * MathConstants.HALF_FACTOR,
-                Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-                null
-        );
-
-        return night;
+    public static float darknessAt(float dayPhase) {
+        // How far the phase is from the middle of the day to midnight, back and forth
+        float progress = dayPhase < MathConstants.HALF_FACTOR ?
+                dayPhase / MathConstants.HALF_FACTOR : (1 - dayPhase) / MathConstants.HALF_FACTOR;
+        return DAY_OPACITY + (MIDNIGHT_OPACITY - DAY_OPACITY) * progress * progress * progress;
     }
 
 }
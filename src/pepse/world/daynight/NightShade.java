@@ -0,0 +1,206 @@
+package pepse.world.daynight;
+
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.function.Function;
+
+/**
+ * Dims the scene by the darkness of the night, without an overlay over the whole window.
+ * <p>
+ *     The darkness of the night is quantized into a fixed number of shade levels, and the appearance of
+ *     every dimmed object is precomputed once per level: a darkened color for the shared palettes
+ *     (terrain, trunks, fruits, leaves and rain), and a darkened copy of an image for the baked ones
+ *     (canopies, clouds and the avatar's frames). A shaded renderable holds the variants of every level,
+ *     and draws the one of the current level, so the objects keep their renderable for their whole life,
+ *     and following the day-night cycle costs a single assignment per clock tick.
+ * </p>
+ * <p>
+ *     The current level is picked from a table over the day-night cycle, precomputed from
+ *     {@link Night#darknessAt(float)} like the sky's colors, by {@link #setPhase(double)},
+ *     which should be registered as a phase listener of the world clock.
+ *     Like {@link pepse.telemetry.Telemetry}, the shade is a global switch, so the dimmed objects
+ *     do not need a reference to the clock. It must only be set on the game thread.
+ * </p>
+ *
+ * @see Night
+ * @see pepse.world.Sky
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public final class NightShade {
+
+    /**
+     * The number of shade levels, from the full light of the day (level 0) to the darkness of midnight.
+     */
+    public static final int LEVELS = 16;
+
+    // Private constants
+    private static final int PHASE_TABLE_SIZE = 256; /* The number of precomputed levels per cycle */
+    private static final float MAX_DARKNESS = Night.darknessAt(0.5f); /* The darkness of midnight */
+    private static final int RGB_MASK = 0xFF; /* The mask of a single color channel */
+    private static final int ALPHA_MASK = 0xFF000000; /* The mask of the alpha channel of a pixel */
+    private static final int RED_SHIFT = 16; /* The offset of the red channel in a pixel */
+    private static final int GREEN_SHIFT = 8; /* The offset of the green channel in a pixel */
+    /* The shade level of each phase of the day-night cycle */
+    private static final int[] levelAtPhase = createPhaseTable();
+
+    // Private static fields
+    private static int currentLevel; /* The shade level of the current phase of the day-night cycle */
+
+    /**
+     * Private constructor to prevent instantiation of the NightShade class.
+     */
+    private NightShade() {}
+
+    /**
+     * Precomputes the shade level of each phase of the day-night cycle.
+     * @return The levels, indexed by the phase of the cycle.
+     */
+    private static int[] createPhaseTable() {
+        int[] levels = new int[PHASE_TABLE_SIZE];
+        for (int entry = 0; entry < PHASE_TABLE_SIZE; entry++) {
+            float darkness = Night.darknessAt((float) entry / PHASE_TABLE_SIZE);
+            levels[entry] = Math.round(darkness / MAX_DARKNESS * (LEVELS - 1));
+        }
+        return levels;
+    }
+
+    /**
+     * Moves the shade to the given phase of the day-night cycle.
+     * Meant to be registered as a phase listener of the world clock.
+     * @param dayPhase The phase of the day-night cycle, in [0, 1), where 0 is the middle of the day.
+     */
+    public static void setPhase(double dayPhase) {
+        int entry = (int) (dayPhase * PHASE_TABLE_SIZE);
+        currentLevel = levelAtPhase[Math.min(entry, PHASE_TABLE_SIZE - 1)];
+    }
+
+    /**
+     * Returns the shade level of the current phase of the day-night cycle.
+     * @return The level, in [0, {@link #LEVELS}).
+     */
+    public static int level() {
+        return currentLevel;
+    }
+
+    /**
+     * Returns the brightness left by the darkness of a shade level,
+     * i.e. what remains of a color under black at the night's opacity.
+     * @param level The shade level.
+     * @return The brightness, in (0, 1].
+     */
+    private static float brightnessOf(int level) {
+        return 1 - MAX_DARKNESS * level / (LEVELS - 1);
+    }
+
+    /**
+     * Precomputes the darkened variants of a color, one for every shade level.
+     * @param base The color in the full light of the day.
+     * @return The darkened colors, indexed by shade level.
+     */
+    public static Color[] darkenedColors(Color base) {
+        Color[] colors = new Color[LEVELS];
+        for (int level = 0; level < LEVELS; level++) {
+            float brightness = brightnessOf(level);
+            colors[level] = new Color(
+                    Math.round(base.getRed() * brightness),
+                    Math.round(base.getGreen() * brightness),
+                    Math.round(base.getBlue() * brightness),
+                    base.getAlpha()
+            );
+        }
+        return colors;
+    }
+
+    /**
+     * Creates a renderable of a single color that follows the darkness of the night.
+     * @param base The color in the full light of the day.
+     * @param factory Creates the renderable of a color, e.g. {@code RectangleRenderable::new}.
+     * @return The shaded renderable.
+     */
+    public static Renderable shade(Color base, Function<Color, Renderable> factory) {
+        Color[] colors = darkenedColors(base);
+        Renderable[] variants = new Renderable[LEVELS];
+        for (int level = 0; level < LEVELS; level++) {
+            variants[level] = factory.apply(colors[level]);
+        }
+        return new ShadedRenderable(variants);
+    }
+
+    /**
+     * Creates a renderable of an image that follows the darkness of the night.
+     * Every level holds a darkened copy of the image, whose transparency is kept,
+     * so the image should be small (e.g. a pixel per block, scaled up when rendered).
+     * @param image The image in the full light of the day.
+     * @return The shaded renderable.
+     */
+    public static Renderable shade(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        int[] darkened = new int[pixels.length];
+        Renderable[] variants = new Renderable[LEVELS];
+        variants[0] = new ImageRenderable(image);
+        for (int level = 1; level < LEVELS; level++) {
+            float brightness = brightnessOf(level);
+            for (int i = 0; i < pixels.length; i++) {
+                int pixel = pixels[i];
+                int red = Math.round(((pixel >> RED_SHIFT) & RGB_MASK) * brightness);
+                int green = Math.round(((pixel >> GREEN_SHIFT) & RGB_MASK) * brightness);
+                int blue = Math.round((pixel & RGB_MASK) * brightness);
+                darkened[i] = (pixel & ALPHA_MASK) | (red << RED_SHIFT) | (green << GREEN_SHIFT) | blue;
+            }
+            BufferedImage variant = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            variant.setRGB(0, 0, width, height, darkened, 0, width);
+            variants[level] = new ImageRenderable(variant);
+        }
+        return new ShadedRenderable(variants);
+    }
+
+    /**
+     * A renderable that draws the variant of the current shade level.
+     *
+     * @author Noam Kimhi
+     * @author Or Forshmit
+     */
+    private static class ShadedRenderable implements Renderable {
+
+        // Private final fields
+        private final Renderable[] variants; /* The variant of every shade level */
+
+        /**
+         * Constructs a new ShadedRenderable.
+         * @param variants The variant of every shade level.
+         */
+        private ShadedRenderable(Renderable[] variants) {
+            this.variants = variants;
+        }
+
+        /**
+         * Draws the variant of the current shade level.
+         *
+         * @param g The graphics to draw with.
+         * @param topLeftCorner The top-left corner of the object on the screen.
+         * @param dimensions The dimensions of the object on the screen.
+         * @param degreesCounterClockwise The rotation of the object.
+         * @param isFlippedHorizontally Whether the object is flipped horizontally.
+         * @param isFlippedVertically Whether the object is flipped vertically.
+         * @param opaqueness The opaqueness of the object.
+         */
+        @Override
+        public void render(
+                Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double degreesCounterClockwise,
+                boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness
+        ) {
+            variants[currentLevel].render(
+                    g, topLeftCorner, dimensions, degreesCounterClockwise,
+                    isFlippedHorizontally, isFlippedVertically, opaqueness
+            );
+        }
+    }
+}
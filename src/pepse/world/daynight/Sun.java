@@ -2,11 +2,11 @@ package pepse.world.daynight;
 
 import danogl.GameObject;
 import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.util.MathConstants;
+import pepse.world.WorldClock;
 
 import java.awt.Color;
 
@@ -25,6 +25,7 @@ public class Sun {
     private static final float FINAL_SUN_CYCLE_ANGLE = 360; /* The final angle of the sun in the cycle. */
     private static final String SUN_TAG = "sun"; /* The tag for the sun game object. */
     private static final Vector2 SUN_SIZE = Vector2.of(90, 90); /* The size of the sun game object. */
+    private static final int PATH_TABLE_SIZE = 1024; /* The number of precomputed sun positions per cycle */
 
     /**
      * A private constructor to prevent instantiation of this utility class.
@@ -36,15 +37,15 @@ public class Sun {
      * <p>
      *     The sun is a yellow circle that moves in a circular path.
      *     The sun moves in a circular path around the center of the screen.
-     *     The sun moves in a circular path with a given cycle length.
+     *     The sun completes its circular path once every day-night cycle of the world clock.
      * </p>
      * @param windowDimensions The dimensions of the game window.
-     * @param cycleLength The length of the sun cycle in seconds.
+     * @param clock The world clock, whose day phase positions the sun.
      * @param sunHeight The height of the sun as a function of the sun's x coordinate.
      * @return The sun game object.
      */
     public static GameObject create(
-            Vector2 windowDimensions, float cycleLength, UnaryOperator<Float> sunHeight
+            Vector2 windowDimensions, WorldClock clock, UnaryOperator<Float> sunHeight
     ) {
         Renderable sunRenderer = new OvalRenderable(Color.YELLOW);
         GameObject sun = new GameObject(Vector2.ZERO, SUN_SIZE, sunRenderer);
@@ -57,17 +58,23 @@ public class Sun {
         Vector2 initialSunCenter = windowDimensions.mult(MathConstants.HALF_FACTOR);
         Vector2 cycleCenter = Vector2.of(sunX, sunHeight.apply(sunX));
 
-        new Transition<>( // Make the sun rotate around the center of the screen
-                sun,
-                (Float angle) ->
-                        sun.setCenter(initialSunCenter.subtract(cycleCenter).rotated(angle).add(cycleCenter)),
-                INITIAL_SUN_CYCLE_ANGLE,
-                FINAL_SUN_CYCLE_ANGLE,
-                Transition.LINEAR_INTERPOLATOR_FLOAT,
-                cycleLength,
-                Transition.TransitionType.TRANSITION_LOOP,
-                null
-        );
+        // Precompute the sun's path around the center of the screen, so moving it does not allocate
+        Vector2[] path = new Vector2[PATH_TABLE_SIZE];
+        for (int entry = 0; entry < PATH_TABLE_SIZE; entry++) {
+            float angle = INITIAL_SUN_CYCLE_ANGLE +
+                          (float) entry / PATH_TABLE_SIZE * (FINAL_SUN_CYCLE_ANGLE - INITIAL_SUN_CYCLE_ANGLE);
+            path[entry] = initialSunCenter.subtract(cycleCenter).rotated(angle).add(cycleCenter)
+                                          .subtract(SUN_SIZE.mult(MathConstants.HALF_FACTOR));
+        }
+        // Make the sun rotate around the center of the screen, following the phase of the day
+        int[] currentEntry = {-1};
+        clock.addPhaseListener(dayPhase -> {
+            int entry = Math.min((int) (dayPhase * PATH_TABLE_SIZE), PATH_TABLE_SIZE - 1);
+            if (entry != currentEntry[0]) {
+                currentEntry[0] = entry;
+                sun.setTopLeftCorner(path[entry]);
+            }
+        });
 
         return sun;
     }
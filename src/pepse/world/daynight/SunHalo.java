@@ -3,6 +3,8 @@ package pepse.world.daynight;
 import danogl.GameObject;
 import danogl.components.CoordinateSpace;
 import danogl.gui.rendering.OvalRenderable;
+import danogl.util.Vector2;
+import pepse.world.WorldClock;
 
 import java.awt.Color;
 
@@ -34,9 +36,10 @@ public class SunHalo {
     /**
      * Creates a sun halo game object.
      * @param sun The {@link Sun} game object.
+     * @param clock The world clock that moves the sun. Must have been subscribed to by the sun already.
      * @return The sun halo game object.
      */
-    public static GameObject create(GameObject sun) {
+    public static GameObject create(GameObject sun, WorldClock clock) {
         GameObject sunHalo = new GameObject(
                 sun.getTopLeftCorner(),
                 sun.getDimensions().mult(SUN_HALO_FACTOR),
@@ -45,10 +48,15 @@ public class SunHalo {
         sunHalo.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         sunHalo.setTag(SUN_HALO_TAG);
 
-        // Make the halo follow the sun rotation
-        sunHalo.addComponent(
-                _ -> sunHalo.setCenter(sun.getCenter())
-        );
+        // Make the halo follow the sun rotation, right after the clock moved the sun (if it did)
+        Vector2[] followedTopLeft = {null};
+        clock.addPhaseListener(_ -> {
+            Vector2 sunTopLeft = sun.getTopLeftCorner();
+            if (!sunTopLeft.equals(followedTopLeft[0])) { // Compared by value, however the sun was moved
+                followedTopLeft[0] = sunTopLeft;
+                sunHalo.setCenter(sun.getCenter());
+            }
+        });
         return sunHalo;
     }
 }
@@ -0,0 +1,248 @@
+package pepse.world.gen;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A range of the world that was generated ahead of time by the {@link WorldBaker},
+ * and is read from a memory-mapped file.
+ * <p>
+ *     The file is a big-endian sequence of primitives, in five sections:
+ *     <ol>
+ *         <li>A header: a magic number, the format version, the seed of the world, the height of the ground
+ *             at x = 0, the first baked block column, the number of baked columns, the number of columns
+ *             in a baked chunk, and the number of trees.</li>
+ *         <li>The surface height of every baked column, as floats.</li>
+ *         <li>The color indices of every baked column's blocks, as bytes.</li>
+ *         <li>The index of the trees: for every baked chunk, the number of trees before it, as ints,
+ *             followed by the total number of trees.</li>
+ *         <li>The trees, from left to right, as fixed-size records.</li>
+ *     </ol>
+ *     Since every section has a fixed layout, any range of baked columns is read straight from the mapping,
+ *     without parsing the rest of the file. Reads never move the mapping's position,
+ *     so ranges may be read concurrently.
+ * </p>
+ *
+ * @see WorldBaker
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class BakedWorld {
+
+    // Private constants
+    private static final int MAGIC = 0x50455057; /* "PEPW", identifies a baked world file */
+    private static final int FORMAT_VERSION = 1; /* The version of the baked world format */
+    private static final int HEADER_BYTES = 8 * Integer.BYTES; /* The size of the header */
+    /* The size of a tree record: column, ground height, trunk height, trunk color, foliage top row,
+       leaf mask, fruit mask and canopy color */
+    private static final int TREE_RECORD_BYTES =
+            Integer.BYTES + 2 * Float.BYTES + Byte.BYTES + Integer.BYTES + 2 * Long.BYTES + Byte.BYTES;
+
+    // Private final fields
+    private final MappedByteBuffer data; /* The mapped file */
+    private final int seed; /* The seed of the baked world */
+    private final float groundHeightAtX0; /* The height of the ground at x = 0 of the baked world */
+    private final int firstColumn; /* The first baked block column */
+    private final int columnCount; /* The number of baked block columns */
+    private final int chunkColumns; /* The number of block columns in a baked chunk */
+    private final int colorsOffset; /* The offset of the color indices section */
+    private final int treeIndexOffset; /* The offset of the tree index section */
+    private final int treesOffset; /* The offset of the trees section */
+
+    /**
+     * Constructs a new BakedWorld over a mapped file, reading its header.
+     *
+     * @param data The mapped file, positioned right after the magic number and the format version.
+     */
+    private BakedWorld(MappedByteBuffer data) {
+        this.data = data;
+        this.seed = data.getInt();
+        this.groundHeightAtX0 = data.getFloat();
+        this.firstColumn = data.getInt();
+        this.columnCount = data.getInt();
+        this.chunkColumns = data.getInt();
+        data.getInt(); // The number of trees is only needed by readers that do not use the index
+        this.colorsOffset = HEADER_BYTES + columnCount * Float.BYTES;
+        this.treeIndexOffset = colorsOffset + columnCount * WorldGenerator.TERRAIN_DEPTH;
+        this.treesOffset = treeIndexOffset + (chunkCount(columnCount, chunkColumns) + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Returns the number of baked chunks that hold the given number of columns.
+     *
+     * @param columnCount The number of baked columns.
+     * @param chunkColumns The number of columns in a baked chunk.
+     * @return The number of baked chunks.
+     */
+    private static int chunkCount(int columnCount, int chunkColumns) {
+        return Math.ceilDiv(columnCount, chunkColumns);
+    }
+
+    /**
+     * Writes baked chunks to a file, replacing it if it exists.
+     *
+     * @param path The path of the file.
+     * @param generator The generator the chunks were generated by.
+     * @param chunks Consecutive chunks of the same number of columns, from left to right.
+     * @return The number of bytes written.
+     * @throws IOException If the file cannot be written.
+     */
+    static long write(Path path, WorldGenerator generator, ChunkData[] chunks) throws IOException {
+        int chunkColumns = chunks.length > 0 ? chunks[0].columnCount() : 0;
+        int treeCount = 0;
+        for (ChunkData chunk : chunks) {
+            treeCount += chunk.trees().size();
+        }
+        try (DataOutputStream out =
+                     new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(generator.getSeed());
+            out.writeFloat(generator.getHeightField().getGroundHeightAtX0());
+            out.writeInt(chunks.length > 0 ? chunks[0].firstColumn() : 0);
+            out.writeInt(chunks.length * chunkColumns);
+            out.writeInt(chunkColumns);
+            out.writeInt(treeCount);
+            for (ChunkData chunk : chunks) {
+                for (int column = 0; column < chunk.columnCount(); column++) {
+                    out.writeFloat(chunk.surfaceHeight(column));
+                }
+            }
+            for (ChunkData chunk : chunks) {
+                for (int column = 0; column < chunk.columnCount(); column++) {
+                    for (int depth = 0; depth < WorldGenerator.TERRAIN_DEPTH; depth++) {
+                        out.writeByte(chunk.groundColor(column, depth));
+                    }
+                }
+            }
+            int treesBefore = 0;
+            for (ChunkData chunk : chunks) {
+                out.writeInt(treesBefore);
+                treesBefore += chunk.trees().size();
+            }
+            out.writeInt(treesBefore);
+            for (ChunkData chunk : chunks) {
+                for (TreeData tree : chunk.trees()) {
+                    tree.write(out);
+                }
+            }
+            out.flush();
+            return out.size();
+        }
+    }
+
+    /**
+     * Maps a file that was written by the {@link WorldBaker}.
+     *
+     * @param path The path of the file.
+     * @return The baked world.
+     * @throws UncheckedIOException If the file cannot be mapped,
+     *                              or is not a baked world of this format version.
+     */
+    public static BakedWorld open(Path path) {
+        try (FileChannel channel = FileChannel.open(path)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large to be mapped");
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (data.getInt() != MAGIC || data.getInt() != FORMAT_VERSION) {
+                throw new IOException(path + " is not a baked world of version " + FORMAT_VERSION);
+            }
+            return new BakedWorld(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the seed of the baked world.
+     *
+     * @return The seed.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns whether the world was baked by a generator of the same world as the given one,
+     * i.e. of the same seed and the same height of the ground.
+     *
+     * @param generator The live generator.
+     * @return {@code true} if the baked content is what the generator would generate,
+     *         {@code false} otherwise.
+     */
+    public boolean isBakedFor(WorldGenerator generator) {
+        return generator.getSeed() == seed &&
+               Float.compare(generator.getHeightField().getGroundHeightAtX0(), groundHeightAtX0) == 0;
+    }
+
+    /**
+     * Returns a chunk source that reads the baked ranges from the file,
+     * and falls back to live generation for ranges that are not entirely baked.
+     *
+     * @param live The live generator, which should be of the same world (see {@link #isBakedFor}).
+     * @return The chunk source.
+     */
+    public ChunkSource over(WorldGenerator live) {
+        return (rangeFirstColumn, rangeEndColumn) -> {
+            boolean isBaked = rangeFirstColumn >= firstColumn &&
+                              rangeEndColumn <= firstColumn + columnCount &&
+                              rangeEndColumn > rangeFirstColumn;
+            return isBaked ?
+                    read(rangeFirstColumn, rangeEndColumn) : live.generate(rangeFirstColumn, rangeEndColumn);
+        };
+    }
+
+    /**
+     * Reads the content of a range of baked block columns.
+     *
+     * @param rangeFirstColumn The first column of the range.
+     * @param rangeEndColumn The column right after the range.
+     * @return The content of the range.
+     */
+    private ChunkData read(int rangeFirstColumn, int rangeEndColumn) {
+        int start = rangeFirstColumn - firstColumn;
+        int count = rangeEndColumn - rangeFirstColumn;
+        float[] surfaceHeights = new float[count];
+        for (int i = 0; i < count; i++) {
+            surfaceHeights[i] = data.getFloat(HEADER_BYTES + (start + i) * Float.BYTES);
+        }
+        byte[] groundColors = new byte[count * WorldGenerator.TERRAIN_DEPTH];
+        data.get(colorsOffset + start * WorldGenerator.TERRAIN_DEPTH, groundColors);
+
+        // Only the trees of the baked chunks that overlap the range are visited
+        int firstTree = data.getInt(treeIndexOffset + start / chunkColumns * Integer.BYTES);
+        int endChunk = (start + count - 1) / chunkColumns + 1;
+        int endTree = data.getInt(treeIndexOffset + endChunk * Integer.BYTES);
+        List<TreeData> trees = new ArrayList<>();
+        for (int tree = firstTree; tree < endTree; tree++) {
+            int offset = treesOffset + tree * TREE_RECORD_BYTES;
+            int column = data.getInt(offset);
+            if (column < rangeFirstColumn || column >= rangeEndColumn) {
+                continue;
+            }
+            offset += Integer.BYTES;
+            float groundHeight = data.getFloat(offset);
+            float trunkHeight = data.getFloat(offset += Float.BYTES);
+            int trunkColor = data.get(offset += Float.BYTES);
+            int foliageTopRow = data.getInt(offset += Byte.BYTES);
+            long leafMask = data.getLong(offset += Integer.BYTES);
+            long fruitMask = data.getLong(offset += Long.BYTES);
+            int canopyColor = data.get(offset + Long.BYTES);
+            trees.add(new TreeData(
+                    column, groundHeight, trunkHeight, trunkColor,
+                    foliageTopRow, leafMask, fruitMask, canopyColor
+            ));
+        }
+        return new ChunkData(rangeFirstColumn, surfaceHeights, groundColors, trees);
+    }
+}
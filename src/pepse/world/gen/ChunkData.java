@@ -0,0 +1,140 @@
+package pepse.world.gen;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The generated content of a chunk of the world: everything needed to build its objects, as primitives.
+ * <p>
+ *     For every block column of the chunk, it holds the height of the surface and the color index
+ *     of each of the column's {@link WorldGenerator#TERRAIN_DEPTH} blocks, and it holds the trees
+ *     planted in the chunk. The data is immutable, so it can be shared between threads, cached,
+ *     or persisted.
+ * </p>
+ * <p>
+ *     A single chunk is persisted (see {@link #write(DataOutput)}) in the layout of a {@link BakedWorld}:
+ *     its surface heights as floats, its color indices as bytes, and its trees as fixed-size records.
+ * </p>
+ *
+ * @see WorldGenerator
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public final class ChunkData {
+
+    // Private final fields
+    private final int firstColumn; /* The leftmost block column of the chunk */
+    private final float[] surfaceHeights; /* The surface height of every column */
+    private final byte[] groundColors; /* The color index of every block, column by column */
+    private final List<TreeData> trees; /* The trees planted in the chunk, from left to right */
+
+    /**
+     * Constructs a new ChunkData, taking ownership of the given arrays.
+     *
+     * @param firstColumn The leftmost block column of the chunk.
+     * @param surfaceHeights The surface height of every column.
+     * @param groundColors The color index of every block, column by column.
+     * @param trees The trees planted in the chunk, from left to right.
+     */
+    ChunkData(int firstColumn, float[] surfaceHeights, byte[] groundColors, List<TreeData> trees) {
+        this.firstColumn = firstColumn;
+        this.surfaceHeights = surfaceHeights;
+        this.groundColors = groundColors;
+        this.trees = List.copyOf(trees);
+    }
+
+    /**
+     * Returns the leftmost block column of the chunk.
+     *
+     * @return The index of the first column.
+     */
+    public int firstColumn() {
+        return firstColumn;
+    }
+
+    /**
+     * Returns the number of block columns in the chunk.
+     *
+     * @return The number of columns.
+     */
+    public int columnCount() {
+        return surfaceHeights.length;
+    }
+
+    /**
+     * Returns the height of the surface of a column, i.e. the y-coordinate of its top block.
+     *
+     * @param column The index of the column within the chunk.
+     * @return The surface height of the column.
+     */
+    public float surfaceHeight(int column) {
+        return surfaceHeights[column];
+    }
+
+    /**
+     * Returns the color index of a terrain block.
+     *
+     * @param column The index of the column within the chunk.
+     * @param depth The depth of the block within the column, 0 being the surface block.
+     * @return The color index, in [0, {@link WorldGenerator#GROUND_COLOR_VARIANTS}).
+     */
+    public int groundColor(int column, int depth) {
+        return groundColors[column * WorldGenerator.TERRAIN_DEPTH + depth];
+    }
+
+    /**
+     * Returns the trees planted in the chunk.
+     *
+     * @return An unmodifiable list of the trees, from left to right.
+     */
+    public List<TreeData> trees() {
+        return trees;
+    }
+
+    /**
+     * Writes the chunk as a big-endian sequence of primitives: its first column, its number of columns,
+     * the surface height of every column, the color indices of every column's blocks,
+     * its number of trees, and the trees.
+     *
+     * @param out The output to write to.
+     * @throws IOException If the output cannot be written.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(firstColumn);
+        out.writeInt(surfaceHeights.length);
+        for (float surfaceHeight : surfaceHeights) {
+            out.writeFloat(surfaceHeight);
+        }
+        out.write(groundColors);
+        out.writeInt(trees.size());
+        for (TreeData tree : trees) {
+            tree.write(out);
+        }
+    }
+
+    /**
+     * Reads a chunk written by {@link #write(DataOutput)}.
+     *
+     * @param in The input to read from.
+     * @return The chunk.
+     * @throws IOException If the input cannot be read.
+     */
+    public static ChunkData read(DataInput in) throws IOException {
+        int firstColumn = in.readInt();
+        float[] surfaceHeights = new float[in.readInt()];
+        for (int column = 0; column < surfaceHeights.length; column++) {
+            surfaceHeights[column] = in.readFloat();
+        }
+        byte[] groundColors = new byte[surfaceHeights.length * WorldGenerator.TERRAIN_DEPTH];
+        in.readFully(groundColors);
+        int treeCount = in.readInt();
+        List<TreeData> trees = new ArrayList<>(treeCount);
+        for (int tree = 0; tree < treeCount; tree++) {
+            trees.add(TreeData.read(in));
+        }
+        return new ChunkData(firstColumn, surfaceHeights, groundColors, trees);
+    }
+}
@@ -0,0 +1,27 @@
+package pepse.world.gen;
+
+/**
+ * A source of the content of the world's chunks.
+ * <p>
+ *     The content may be generated live by a {@link WorldGenerator}, or read from a world that was
+ *     baked ahead of time into a {@link BakedWorld}. Either way, a source returns the same content
+ *     for the same range, and is safe to call concurrently for different ranges.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+@FunctionalInterface
+public interface ChunkSource {
+
+    /**
+     * Returns the content of the block columns in the range [firstColumn, endColumn).
+     * The range is given in columns rather than in pixels, so it can address the world
+     * far beyond the range of an {@code int} x-coordinate.
+     *
+     * @param firstColumn The first block column of the range.
+     * @param endColumn The block column right after the range.
+     * @return The content of the range.
+     */
+    ChunkData generate(int firstColumn, int endColumn);
+}
@@ -0,0 +1,264 @@
+package pepse.world.gen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Decides where trees are planted, and which cells of their foliage hold leaves and fruits.
+ * <p>
+ *      Every position is decided by a random number generator seeded by the position and the world's seed,
+ *      so the layout of a range does not depend on when, in which order, or on which thread it is generated.
+ *      Every call to {@link #layout(int, int)} uses its own random number generator,
+ *      so ranges may be laid out concurrently.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+class FloraLayout {
+
+    // Private constants
+    private static final double TREE_PLANTING_THRESHOLD = 0.075; /* Probability to plant a tree */
+    private static final double LEAF_PLACEMENT_THRESHOLD = 0.65; /* Probability to place a leaf */
+    private static final double FRUIT_PLACEMENT_THRESHOLD = 0.05; /* Probability to place a fruit */
+    private static final int MIN_TREE_HEIGHT = 4; /* Minimum tree height in blocks */
+    private static final int MAX_TREE_HEIGHT = 10; /* Maximum tree height in blocks */
+    private static final int EMPTY_CELL = 0; /* A foliage cell that holds nothing */
+    private static final int LEAF_CELL = 1; /* A foliage cell that holds a leaf */
+    private static final int FRUIT_CELL = 2; /* A foliage cell that holds a fruit */
+    private static final int HASH_BASE = 1; /* The initial value of a position hash, as in Objects.hash */
+    private static final int HASH_MULTIPLIER = 31; /* The multiplier of a position hash, as in Objects.hash */
+
+    // Private final fields
+    private final HeightField heightField; /* The height field the trees are planted on */
+    private final int seed; /* Seed for random number generation */
+
+    /**
+     * Constructs a new FloraLayout.
+     *
+     * @param heightField The height field the trees are planted on.
+     * @param seed The seed of the world.
+     */
+    FloraLayout(HeightField heightField, int seed) {
+        this.heightField = heightField;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the random seed of a trunk position.
+     * Equal to {@code Objects.hash(x, seed)}, without boxing its arguments into an array.
+     *
+     * @param x The x-coordinate of the trunk.
+     * @return The seed of the position.
+     */
+    private int positionSeed(int x) {
+        return (HASH_BASE * HASH_MULTIPLIER + x) * HASH_MULTIPLIER + seed;
+    }
+
+    /**
+     * Returns the random seed of a foliage cell position.
+     * Equal to {@code Objects.hash(x, y, seed)}, without boxing its arguments into an array.
+     *
+     * @param x The x-coordinate of the cell.
+     * @param y The y-coordinate of the cell.
+     * @return The seed of the position.
+     */
+    private int positionSeed(int x, int y) {
+        return ((HASH_BASE * HASH_MULTIPLIER + x) * HASH_MULTIPLIER + y) * HASH_MULTIPLIER + seed;
+    }
+
+    /**
+     * Returns the height of the trunk planted at the given x-coordinate.
+     * The height is random within a predefined range, but consistent for each position.
+     *
+     * @param trunkX The x-coordinate of the trunk.
+     * @return The height of the trunk in pixels.
+     */
+    private static float trunkHeightAt(int trunkX) {
+        Random random = new Random(trunkX);
+        return random.nextInt(MIN_TREE_HEIGHT, MAX_TREE_HEIGHT) * WorldGenerator.BLOCK_SIZE;
+    }
+
+    /**
+     * Decides the content of a single foliage cell based on random thresholds.
+     * <p>
+     *     A cell holds a leaf based on a threshold. If it does not, it may hold a fruit,
+     *     unless it is right above the trunk, based on another threshold.
+     * </p>
+     * The random number generator must be seeded for the cell before calling this method.
+     *
+     * @param trunkX The x-coordinate of the tree trunk.
+     * @param cellX The x-coordinate of the cell.
+     * @param random The random number generator, seeded for the cell.
+     * @return One of {@link #EMPTY_CELL}, {@link #LEAF_CELL} or {@link #FRUIT_CELL}.
+     */
+    private static int decideCellContent(int trunkX, int cellX, Random random) {
+        if (random.nextDouble(0, 1) < LEAF_PLACEMENT_THRESHOLD) {
+            return LEAF_CELL;
+        }
+        boolean isFruit = cellX != trunkX && random.nextDouble(0, 1) < FRUIT_PLACEMENT_THRESHOLD;
+        return isFruit ? FRUIT_CELL : EMPTY_CELL;
+    }
+
+    /**
+     * Plants a tree, filling its foliage and claiming its cells in the occupancy grid.
+     * Cells that were already claimed by a tree to the left are skipped.
+     *
+     * @param column The block column of the trunk.
+     * @param foliageTopRow The block row of the top of the foliage grid.
+     * @param occupancy The occupancy grid of the laid out range.
+     * @param random The random number generator of the laid out range.
+     * @return The data of the planted tree.
+     */
+    private TreeData plantTree(int column, int foliageTopRow, OccupancyGrid occupancy, Random random) {
+        int trunkX = column * WorldGenerator.BLOCK_SIZE;
+        int firstCellColumn = column - WorldGenerator.FOLIAGE_WIDTH / 2;
+        int foliageX = trunkX - WorldGenerator.FOLIAGE_WIDTH * WorldGenerator.BLOCK_SIZE / 2 -
+                       WorldGenerator.BLOCK_SIZE / 2;
+        int foliageY = foliageTopRow * WorldGenerator.BLOCK_SIZE;
+        long leafMask = 0, fruitMask = 0; // One bit per cell
+        for (int row = 0; row < WorldGenerator.FOLIAGE_HEIGHT; row++) {
+            for (int col = 0; col < WorldGenerator.FOLIAGE_WIDTH; col++) {
+                int cellX = foliageX + col * WorldGenerator.BLOCK_SIZE;
+                // Seed by the cell's position, to ensure consistent "random" behavior for each position.
+                random.setSeed(positionSeed(cellX, foliageY + row * WorldGenerator.BLOCK_SIZE));
+                int content = decideCellContent(trunkX, cellX, random);
+                if (content == EMPTY_CELL || !occupancy.claim(firstCellColumn + col, foliageTopRow + row)) {
+                    continue; // Nothing to place, or the cell belongs to a tree to the left
+                }
+                long cellBit = 1L << (row * WorldGenerator.FOLIAGE_WIDTH + col);
+                if (content == LEAF_CELL) {
+                    leafMask |= cellBit;
+                } else {
+                    fruitMask |= cellBit;
+                }
+            }
+        }
+        // Derive the colors from the trunk's hash, so they are consistent for each position
+        int hash = positionSeed(trunkX);
+        int canopyColor = Math.floorMod(hash, WorldGenerator.CANOPY_COLOR_VARIANTS);
+        int trunkColor = Math.floorMod(hash / WorldGenerator.CANOPY_COLOR_VARIANTS,
+                                       WorldGenerator.TRUNK_COLOR_VARIANTS);
+        return new TreeData(
+                column, heightField.columnGroundHeight(column), trunkHeightAt(trunkX), trunkColor,
+                foliageTopRow, leafMask, fruitMask, canopyColor
+        );
+    }
+
+    /**
+     * Lays out the trees whose trunks are in the given range of block columns.
+     * <p>
+     *      Overlapping foliage of neighbouring trees is resolved with an occupancy grid:
+     *      each foliage cell belongs to the leftmost tree that fills it.
+     *      Trees that are left of the range but whose foliage reaches into it are evaluated as well,
+     *      so the result does not depend on the range, or on the order in which ranges are laid out.
+     * </p>
+     *
+     * @param firstColumn The leftmost block column of the range.
+     * @param endColumn The block column right after the range.
+     * @return The trees of the range, from left to right.
+     */
+    List<TreeData> layout(int firstColumn, int endColumn) {
+        List<TreeData> trees = new ArrayList<>();
+        if (endColumn <= firstColumn) {
+            return trees;
+        }
+        Random random = new Random(); // Reseeded for every position, owned by this call
+        // Trees up to a foliage width to the left of the range may claim cells of trees in the range
+        int scanColumn = firstColumn - (WorldGenerator.FOLIAGE_WIDTH - 1);
+
+        // First pass: find the trees and the rows their foliage covers.
+        int[] treeColumns = new int[endColumn - scanColumn];
+        int[] foliageTopRows = new int[endColumn - scanColumn];
+        int treeCount = 0;
+        for (int column = scanColumn; column < endColumn; column++) {
+            int trunkX = column * WorldGenerator.BLOCK_SIZE;
+            random.setSeed(positionSeed(trunkX));
+            if (random.nextDouble(0, 1) < TREE_PLANTING_THRESHOLD) {
+                int trunkTop = (int) (heightField.columnGroundHeight(column) - trunkHeightAt(trunkX));
+                treeColumns[treeCount] = column;
+                // Align the foliage to the block grid, so overlapping cells of different trees coincide
+                foliageTopRows[treeCount] = Math.floorDiv(trunkTop, WorldGenerator.BLOCK_SIZE) -
+                                            WorldGenerator.FOLIAGE_HEIGHT / 2;
+                treeCount++;
+            }
+        }
+        if (treeCount == 0) {
+            return trees;
+        }
+
+        // Second pass: fill the foliage from left to right, claiming cells as we go.
+        OccupancyGrid occupancy = new OccupancyGrid(
+                scanColumn - WorldGenerator.FOLIAGE_WIDTH / 2, endColumn + WorldGenerator.FOLIAGE_WIDTH / 2,
+                foliageTopRows, treeCount, WorldGenerator.FOLIAGE_HEIGHT
+        );
+        for (int tree = 0; tree < treeCount; tree++) {
+            TreeData data = plantTree(treeColumns[tree], foliageTopRows[tree], occupancy, random);
+            if (data.column() >= firstColumn) { // Trees left of the range only claim their cells
+                trees.add(data);
+            }
+        }
+        return trees;
+    }
+
+    /**
+     * An occupancy grid of foliage cells, used while laying out a single range.
+     * <p>
+     *     Columns and rows are measured in blocks. Foliage cells are shifted by half a block from
+     *     the terrain grid, so a cell at column {@code c} starts at
+     *     x = {@code c * BLOCK_SIZE - BLOCK_SIZE / 2}.
+     * </p>
+     *
+     * @author Noam Kimhi
+     * @author Or Forshmit
+     */
+    private static class OccupancyGrid {
+
+        // Private final fields
+        private final int firstColumn; /* The leftmost column covered by the grid */
+        private final int firstRow; /* The topmost row covered by the grid */
+        private final int width; /* The number of columns in the grid */
+        private final boolean[] claimed; /* Whether each cell was claimed, row by row */
+
+        /**
+         * Constructs an empty occupancy grid that covers all the given foliage grids.
+         *
+         * @param firstColumn The leftmost column covered by the grid.
+         * @param endColumn The column right after the rightmost column covered by the grid.
+         * @param foliageTopRows The top rows of the foliage grids to cover.
+         * @param treeCount The number of valid entries in foliageTopRows.
+         * @param foliageHeight The number of rows in each foliage grid.
+         */
+        OccupancyGrid(
+                int firstColumn, int endColumn, int[] foliageTopRows, int treeCount, int foliageHeight
+        ) {
+            int minRow = Integer.MAX_VALUE;
+            int maxRow = Integer.MIN_VALUE;
+            for (int i = 0; i < treeCount; i++) {
+                minRow = Math.min(minRow, foliageTopRows[i]);
+                maxRow = Math.max(maxRow, foliageTopRows[i] + foliageHeight);
+            }
+            this.firstColumn = firstColumn;
+            this.firstRow = minRow;
+            this.width = endColumn - firstColumn;
+            this.claimed = new boolean[width * (maxRow - minRow)];
+        }
+
+        /**
+         * Claims the given cell, unless it was already claimed.
+         *
+         * @param column The column of the cell.
+         * @param row The row of the cell.
+         * @return {@code true} if the cell was free and is now claimed, {@code false} otherwise.
+         */
+        boolean claim(int column, int row) {
+            int index = (row - firstRow) * width + (column - firstColumn);
+            if (claimed[index]) {
+                return false;
+            }
+            claimed[index] = true;
+            return true;
+        }
+    }
+}
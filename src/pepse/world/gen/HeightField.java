@@ -0,0 +1,138 @@
+package pepse.world.gen;
+
+import pepse.util.NoiseGenerator;
+
+import java.util.stream.IntStream;
+
+/**
+ * The height field of the terrain: the height of the ground at every x-coordinate of the infinite world.
+ * <p>
+ *     The Perlin noise that shapes the terrain is periodic, and so is the terrain. At construction,
+ *     the ground height of every block column in one period is computed (in parallel) into a table,
+ *     so the height of any block-aligned position is a table lookup. Other positions are evaluated,
+ *     within the first period, so the noise keeps its precision however far the position is.
+ * </p>
+ * <p>
+ *     Positions are world coordinates: block columns are {@code long} and x-coordinates are {@code double},
+ *     so the field can be queried far beyond where a {@code float} coordinate stays precise.
+ * </p>
+ * <p>
+ *     The height field does not depend on the game engine, and is safe to query from any thread.
+ * </p>
+ *
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class HeightField {
+
+    // Private constants
+    private static final double NOISE_GENERATION_FACTOR = WorldGenerator.BLOCK_SIZE * 6; /* Noise factor */
+
+    // Private final fields
+    private final float groundHeightAtX0; /* i.e., the height of the ground at x = 0 */
+    private final NoiseGenerator perlinNoiseGenerator; /* The Perlin noise generator */
+    private final float[] columnGroundHeights; /* The ground height of every block column in one period */
+    private final double period; /* The period of the terrain, in pixels */
+
+    /**
+     * Constructs a new HeightField, and computes the heights of one period.
+     *
+     * @param groundHeightAtX0 The height of the ground at x = 0, around which the terrain varies.
+     * @param seed The seed of the noise.
+     */
+    public HeightField(float groundHeightAtX0, int seed) {
+        this.groundHeightAtX0 = groundHeightAtX0;
+        this.perlinNoiseGenerator = new NoiseGenerator(seed, (int) groundHeightAtX0);
+        this.period = perlinNoiseGenerator.getPeriod();
+        this.columnGroundHeights = new float[periodInColumns((long) period)];
+        IntStream.range(0, columnGroundHeights.length).parallel().forEach(
+                column -> columnGroundHeights[column] =
+                        evaluateGroundHeight(column * WorldGenerator.BLOCK_SIZE)
+        );
+    }
+
+    /**
+     * Returns the height of the ground at x = 0, around which the terrain varies.
+     *
+     * @return The height of the ground at x = 0.
+     */
+    public float getGroundHeightAtX0() {
+        return groundHeightAtX0;
+    }
+
+    /**
+     * Returns the number of block columns after which the terrain repeats itself.
+     *
+     * @param period The period of the terrain's noise, in pixels.
+     * @return The smallest number of columns that spans a whole number of periods.
+     */
+    private static int periodInColumns(long period) {
+        long divisor = period, remainder = WorldGenerator.BLOCK_SIZE; // Euclid's algorithm for the gcd
+        while (remainder != 0) {
+            long next = divisor % remainder;
+            divisor = remainder;
+            remainder = next;
+        }
+        return Math.toIntExact(period / divisor);
+    }
+
+    /**
+     * Evaluates the noise for the height of the ground at the given x position.
+     * The position is first brought into the first period, where the noise is evaluated precisely.
+     *
+     * @param x The x position.
+     * @return The height of the ground at the given x position.
+     */
+    private float evaluateGroundHeight(double x) {
+        double xInPeriod = x - Math.floor(x / period) * period;
+        float noise = (float) perlinNoiseGenerator.noise(xInPeriod, NOISE_GENERATION_FACTOR);
+        return groundHeightAtX0 + noise;
+    }
+
+    /**
+     * Returns the ground height of a block column, from the table of one period.
+     *
+     * @param column The index of the block column.
+     * @return The height of the ground at the left edge of the column.
+     */
+    public float columnGroundHeight(long column) {
+        return columnGroundHeights[Math.floorMod(column, columnGroundHeights.length)];
+    }
+
+    /**
+     * Returns the height of the top of the surface block of a block column,
+     * i.e. the ground height snapped to the block grid.
+     *
+     * @param column The index of the block column.
+     * @return The y-coordinate of the top of the column's surface block.
+     */
+    public float columnSurfaceHeight(long column) {
+        int size = WorldGenerator.BLOCK_SIZE;
+        return (float) Math.floor(columnGroundHeight(column) / size) * size;
+    }
+
+    /**
+     * Returns the height of the ground at the given x position.
+     * Block-aligned positions are looked up in the table, other positions are evaluated.
+     *
+     * @param x The x position.
+     * @return The height of the ground at the given x position.
+     */
+    public float groundHeightAt(double x) {
+        long column = (long) Math.floor(x / WorldGenerator.BLOCK_SIZE);
+        if (column * WorldGenerator.BLOCK_SIZE == x) {
+            return columnGroundHeight(column);
+        }
+        return evaluateGroundHeight(x);
+    }
+
+    /**
+     * Returns the height of the top of the surface block in the block column containing the given x position.
+     *
+     * @param x The x position.
+     * @return The y-coordinate of the top of the column's surface block.
+     */
+    public float surfaceHeightAt(double x) {
+        return columnSurfaceHeight((long) Math.floor(x / WorldGenerator.BLOCK_SIZE));
+    }
+}
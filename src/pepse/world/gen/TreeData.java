@@ -0,0 +1,93 @@
+package pepse.world.gen;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The generated data of a single tree.
+ * <p>
+ *     The foliage of a tree is a grid of {@link WorldGenerator#FOLIAGE_WIDTH} by
+ *     {@link WorldGenerator#FOLIAGE_HEIGHT} cells, centered above the trunk and aligned to the block grid.
+ *     Cells are indexed row by row, and the leaves and fruits of the tree are bitsets over the cells.
+ * </p>
+ *
+ * @param column The block column of the trunk.
+ * @param groundHeight The height of the ground under the trunk, where the trunk stands.
+ * @param trunkHeight The height of the trunk, in pixels.
+ * @param trunkColor The index of the trunk's color, in [0, {@link WorldGenerator#TRUNK_COLOR_VARIANTS}).
+ * @param foliageTopRow The block row of the top of the foliage grid.
+ * @param leafMask The bitset of the foliage cells that hold a leaf.
+ * @param fruitMask The bitset of the foliage cells that hold a fruit.
+ * @param canopyColor The index of the leaves' colors, in [0, {@link WorldGenerator#CANOPY_COLOR_VARIANTS}).
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public record TreeData(
+        int column, float groundHeight, float trunkHeight, int trunkColor,
+        int foliageTopRow, long leafMask, long fruitMask, int canopyColor
+) {
+
+    /**
+     * Returns the x-coordinate of the trunk, relative to an origin column,
+     * so it stays precise however far the tree is from column 0.
+     *
+     * @param originColumn The block column at x = 0.
+     * @return The x-coordinate of the trunk's left edge.
+     */
+    public float trunkX(long originColumn) {
+        return (float) ((column - originColumn) * WorldGenerator.BLOCK_SIZE);
+    }
+
+    /**
+     * Returns the x-coordinate of the left edge of the foliage grid, relative to an origin column.
+     * The grid is centered on the trunk's center, so it is shifted by half a block from the terrain's grid.
+     *
+     * @param originColumn The block column at x = 0.
+     * @return The x-coordinate of the foliage grid.
+     */
+    public float foliageX(long originColumn) {
+        return trunkX(originColumn) - WorldGenerator.FOLIAGE_WIDTH * WorldGenerator.BLOCK_SIZE / 2 -
+               WorldGenerator.BLOCK_SIZE / 2;
+    }
+
+    /**
+     * Returns the y-coordinate of the top of the foliage grid.
+     *
+     * @return The y-coordinate of the foliage grid.
+     */
+    public int foliageY() {
+        return foliageTopRow * WorldGenerator.BLOCK_SIZE;
+    }
+
+    /**
+     * Writes the tree as a fixed-size record, the one {@link BakedWorld} files hold.
+     *
+     * @param out The output to write to.
+     * @throws IOException If the output cannot be written.
+     */
+    void write(DataOutput out) throws IOException {
+        out.writeInt(column);
+        out.writeFloat(groundHeight);
+        out.writeFloat(trunkHeight);
+        out.writeByte(trunkColor);
+        out.writeInt(foliageTopRow);
+        out.writeLong(leafMask);
+        out.writeLong(fruitMask);
+        out.writeByte(canopyColor);
+    }
+
+    /**
+     * Reads a tree written by {@link #write(DataOutput)}.
+     *
+     * @param in The input to read from.
+     * @return The tree.
+     * @throws IOException If the input cannot be read.
+     */
+    static TreeData read(DataInput in) throws IOException {
+        return new TreeData(
+                in.readInt(), in.readFloat(), in.readFloat(), in.readByte(),
+                in.readInt(), in.readLong(), in.readLong(), in.readByte()
+        );
+    }
+}
@@ -0,0 +1,143 @@
+package pepse.world.gen;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bakes a range of the world ahead of time into a file, which the game then maps as a {@link BakedWorld}.
+ * <p>
+ *     The range is split into chunks of {@link #BAKED_CHUNK_COLUMNS} block columns, which are generated
+ *     in parallel by a fork/join pool: the range is halved recursively, until a task is small enough
+ *     to be generated on its own. Since generating a chunk depends only on the chunk, the baked
+ *     content is exactly what the game would generate live.
+ * </p>
+ * <p>
+ *     Usage:
+ *     <pre>
+ *     java pepse.world.gen.WorldBaker world.baked &lt;seed&gt; &lt;min x&gt; &lt;max x&gt; \
+ *         &lt;ground height&gt;
+ *     </pre>
+ *     where the ground height is the height of the ground at x = 0, two thirds of the game window's height.
+ *     The range is widened to whole chunks.
+ * </p>
+ *
+ * @see BakedWorld
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class WorldBaker {
+
+    /**
+     * The number of block columns in a baked chunk, the granularity of the baked file's tree index.
+     */
+    public static final int BAKED_CHUNK_COLUMNS = 16;
+
+    // Private constants
+    private static final int BAKER_ARGUMENTS = 5; /* The number of command line arguments */
+    private static final int CHUNKS_PER_TASK = 4; /* Tasks of at most this many chunks are not split */
+    private static final double NANOS_PER_MILLI = 1e6; /* Nanoseconds in a millisecond */
+    /* The format of the report printed once the world is baked */
+    private static final String REPORT_FORMAT = "baked %d chunks (%d trees) into %d bytes in %.1fms%n";
+
+    /**
+     * Private constructor to prevent instantiation of the WorldBaker class.
+     */
+    private WorldBaker() {}
+
+    /**
+     * Generates a run of consecutive chunks, splitting itself in halves while it is too large.
+     *
+     * @author Noam Kimhi
+     * @author Or Forshmit
+     */
+    @SuppressWarnings("serial") // Tasks only live within a single bake, and are never serialized
+    private static class BakeTask extends RecursiveAction {
+
+        // Private final fields
+        private final WorldGenerator generator; /* Generates the chunks */
+        private final int firstChunk; /* The index of the first chunk of the whole range */
+        private final ChunkData[] chunks; /* The generated chunks of the whole range */
+        private final int from; /* The first chunk of this task, relative to the range */
+        private final int to; /* The chunk right after this task, relative to the range */
+
+        /**
+         * Constructs a new BakeTask.
+         *
+         * @param generator Generates the chunks.
+         * @param firstChunk The index of the first chunk of the whole range.
+         * @param chunks The generated chunks of the whole range, filled by the tasks.
+         * @param from The first chunk of this task, relative to the range.
+         * @param to The chunk right after this task, relative to the range.
+         */
+        BakeTask(WorldGenerator generator, int firstChunk, ChunkData[] chunks, int from, int to) {
+            this.generator = generator;
+            this.firstChunk = firstChunk;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Generates the chunks of this task, or forks two tasks of half its chunks each.
+         */
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNKS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    int firstColumn = (firstChunk + i) * BAKED_CHUNK_COLUMNS;
+                    chunks[i] = generator.generate(firstColumn, firstColumn + BAKED_CHUNK_COLUMNS);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new BakeTask(generator, firstChunk, chunks, from, middle),
+                    new BakeTask(generator, firstChunk, chunks, middle, to)
+            );
+        }
+    }
+
+    /**
+     * Bakes the range [minX, maxX) of a world, widened to whole chunks, in parallel.
+     *
+     * @param generator The generator of the world.
+     * @param minX The minimum x-coordinate of the range.
+     * @param maxX The x-coordinate right after the range.
+     * @return The baked chunks, from left to right.
+     */
+    static ChunkData[] bake(WorldGenerator generator, int minX, int maxX) {
+        int chunkWidth = BAKED_CHUNK_COLUMNS * WorldGenerator.BLOCK_SIZE;
+        int firstChunk = Math.floorDiv(minX, chunkWidth);
+        int endChunk = Math.max(firstChunk, Math.ceilDiv(maxX, chunkWidth));
+        ChunkData[] chunks = new ChunkData[endChunk - firstChunk];
+        ForkJoinPool.commonPool().invoke(new BakeTask(generator, firstChunk, chunks, 0, chunks.length));
+        return chunks;
+    }
+
+    /**
+     * Bakes a range of a world into a file.
+     *
+     * @param args The output path, the seed, the minimum and maximum x-coordinates of the range,
+     *             and the height of the ground at x = 0.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != BAKER_ARGUMENTS) {
+            System.err.println("Usage: WorldBaker <output file> <seed> <min x> <max x> <ground height>");
+            return;
+        }
+        long start = System.nanoTime();
+        int seed = Integer.parseInt(args[1]);
+        WorldGenerator generator = new WorldGenerator(new HeightField(Float.parseFloat(args[4]), seed), seed);
+        ChunkData[] chunks = bake(generator, Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+        long bytes = BakedWorld.write(Path.of(args[0]), generator, chunks);
+        int trees = 0;
+        for (ChunkData chunk : chunks) {
+            trees += chunk.trees().size();
+        }
+        double millis = (System.nanoTime() - start) / NANOS_PER_MILLI;
+        System.out.printf(REPORT_FORMAT, chunks.length, trees, bytes, millis);
+    }
+}
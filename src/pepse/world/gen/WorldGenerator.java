@@ -0,0 +1,122 @@
+package pepse.world.gen;
+
+import java.util.List;
+
+/**
+ * Generates the content of the world, chunk by chunk, as primitive data.
+ * <p>
+ *     The generator does not depend on the game engine: it turns a range of x-coordinates into
+ *     a {@link ChunkData} of heights, color indices and tree bitsets, which the game then turns into
+ *     GameObjects. Generating a chunk is deterministic for a seed, and depends only on the chunk,
+ *     so chunks may be generated in any order, concurrently, or ahead of time.
+ * </p>
+ *
+ * @see ChunkData
+ * @see BakedWorld
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class WorldGenerator implements ChunkSource {
+
+    /**
+     * The size of a block in pixels. The world is aligned to a grid of blocks.
+     */
+    public static final int BLOCK_SIZE = 30;
+
+    /**
+     * The number of blocks in each column of the terrain.
+     */
+    public static final int TERRAIN_DEPTH = 25;
+
+    /**
+     * The number of columns of a tree's foliage grid.
+     */
+    public static final int FOLIAGE_WIDTH = 8;
+
+    /**
+     * The number of rows of a tree's foliage grid.
+     */
+    public static final int FOLIAGE_HEIGHT = 8;
+
+    /**
+     * The number of color variations of the terrain blocks.
+     */
+    public static final int GROUND_COLOR_VARIANTS = 64;
+
+    /**
+     * The number of color variations of the tree trunks.
+     */
+    public static final int TRUNK_COLOR_VARIANTS = 8;
+
+    /**
+     * The number of color variations of the tree canopies.
+     */
+    public static final int CANOPY_COLOR_VARIANTS = 8;
+
+    // Private constants
+    /* log2 of the number of ground color variations */
+    private static final int GROUND_COLOR_BITS = Integer.numberOfTrailingZeros(GROUND_COLOR_VARIANTS);
+    private static final int GROUND_COLOR_HASH = 0x9E3779B1; /* Spreads block positions over the variants */
+
+    // Private final fields
+    private final HeightField heightField; /* The height field of the terrain */
+    private final int seed; /* The seed of the world */
+    private final FloraLayout floraLayout; /* Decides where trees are planted */
+
+    /**
+     * Constructs a new WorldGenerator.
+     *
+     * @param heightField The height field of the terrain.
+     * @param seed The seed of the world.
+     */
+    public WorldGenerator(HeightField heightField, int seed) {
+        this.heightField = heightField;
+        this.seed = seed;
+        this.floraLayout = new FloraLayout(heightField, seed);
+    }
+
+    /**
+     * Returns the height field of the terrain.
+     *
+     * @return The height field.
+     */
+    public HeightField getHeightField() {
+        return heightField;
+    }
+
+    /**
+     * Returns the seed of the world.
+     *
+     * @return The seed.
+     */
+    public int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Generates the content of the block columns in the range [firstColumn, endColumn).
+     * Safe to call concurrently for different ranges.
+     *
+     * @param firstColumn The first block column of the range.
+     * @param endColumn The block column right after the range.
+     * @return The content of the range.
+     */
+    @Override
+    public ChunkData generate(int firstColumn, int endColumn) {
+        int columnCount = Math.max(0, endColumn - firstColumn);
+        float[] surfaceHeights = new float[columnCount];
+        byte[] groundColors = new byte[columnCount * TERRAIN_DEPTH];
+        for (int i = 0; i < columnCount; i++) {
+            int column = firstColumn + i;
+            surfaceHeights[i] = heightField.columnSurfaceHeight(column);
+            for (int depth = 0; depth < TERRAIN_DEPTH; depth++) {
+                // Pick a color consistently for the block's position
+                int blockIndex = column * TERRAIN_DEPTH + depth;
+                groundColors[i * TERRAIN_DEPTH + depth] =
+                        (byte) (blockIndex * GROUND_COLOR_HASH >>> (Integer.SIZE - GROUND_COLOR_BITS));
+            }
+        }
+        List<TreeData> trees = floraLayout.layout(firstColumn, firstColumn + columnCount);
+        return new ChunkData(firstColumn, surfaceHeights, groundColors, trees);
+    }
+}
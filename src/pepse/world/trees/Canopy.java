@@ -0,0 +1,101 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.ColorSupplier;
+import pepse.world.Block;
+import pepse.world.daynight.NightShade;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The Canopy class is responsible for creating baked tree canopies.
+ * <p>
+ *     Instead of materialising every leaf as its own GameObject, a canopy bakes the static leaf mask
+ *     of a tree into a single image, so a whole tree top costs one GameObject.
+ *     The image holds a single pixel per foliage cell, and is scaled up to the canopy's size when rendered,
+ *     so a canopy costs a few kilobytes, even with a darkened copy of the image
+ *     for every shade level of the night. Images are cached by their leaf mask and color seed.
+ *     Leaf masks practically never repeat across trees, so the cache does not serve different trees:
+ *     it serves trees that are regenerated after their chunk was evicted, e.g. when walking back.
+ * </p>
+ *
+ * @see Leaf
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+class Canopy {
+
+    // Private constants
+    /* The maximal number of cached canopy images, comfortably more than the trees of the loaded chunks */
+    private static final int MAX_CACHED_CANOPIES = 256;
+    /* The cache of canopy images, ordered by access so the least recently used is evicted first */
+    private static final Map<CanopyKey, Renderable> spriteCache =
+            new LinkedHashMap<>(MAX_CACHED_CANOPIES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CanopyKey, Renderable> eldest) {
+                    return size() > MAX_CACHED_CANOPIES;
+                }
+            };
+
+    /**
+     * The key of a cached canopy image.
+     *
+     * @param leafMask The bitset of the cells that hold a leaf.
+     * @param colorSeed The seed used to color the leaves.
+     */
+    private record CanopyKey(long leafMask, int colorSeed) {}
+
+    /**
+     * Private constructor to prevent instantiation of the Canopy class.
+     */
+    private Canopy() {}
+
+    /**
+     * Bakes a leaf mask into a single image, of a pixel per cell.
+     *
+     * @param leafMask The bitset of the cells that hold a leaf, row by row.
+     * @param colorSeed The seed used to color the leaves.
+     * @param columns The number of columns in the foliage grid.
+     * @param rows The number of rows in the foliage grid.
+     * @return A renderable of the baked canopy, which follows the darkness of the night.
+     */
+    private static Renderable bake(long leafMask, int colorSeed, int columns, int rows) {
+        BufferedImage image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_ARGB);
+        Random colorRandom = new Random(colorSeed);
+        for (int cell = 0; cell < columns * rows; cell++) {
+            if ((leafMask & (1L << cell)) != 0) {
+                Color color = ColorSupplier.approximateColor(Leaf.BASE_LEAF_COLOR, colorRandom);
+                image.setRGB(cell % columns, cell / columns, color.getRGB());
+            }
+        }
+        return NightShade.shade(image);
+    }
+
+    /**
+     * Creates a canopy GameObject for the given leaf mask, reusing a cached image when possible.
+     * The image is scaled to a block per cell.
+     *
+     * @param topLeftCorner The top-left corner of the foliage grid.
+     * @param leafMask The bitset of the cells that hold a leaf, row by row.
+     * @param colorSeed The seed used to color the leaves.
+     * @param columns The number of columns in the foliage grid.
+     * @param rows The number of rows in the foliage grid.
+     * @return A GameObject representing the baked canopy.
+     */
+    static GameObject create(Vector2 topLeftCorner, long leafMask, int colorSeed, int columns, int rows) {
+        Renderable sprite;
+        synchronized (spriteCache) { // Canopies may be created by concurrent generations
+            sprite = spriteCache.computeIfAbsent(
+                    new CanopyKey(leafMask, colorSeed),
+                    key -> bake(key.leafMask(), key.colorSeed(), columns, rows)
+            );
+        }
+        return new GameObject(topLeftCorner, Vector2.of(columns, rows).mult(Block.SIZE), sprite);
+    }
+}
@@ -2,26 +2,28 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.util.Vector2;
-import pepse.util.LocationCalculator;
-import pepse.util.MathConstants;
 import pepse.world.Block;
+import pepse.world.WorldOrigin;
+import pepse.world.gen.ChunkData;
+import pepse.world.gen.TreeData;
+import pepse.world.gen.WorldGenerator;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
-import java.util.Objects;
 import java.util.function.Consumer;
-import java.util.function.UnaryOperator;
+import java.util.function.ObjIntConsumer;
 
 /**
- * The Flora class is responsible for generating and managing the placement of flora elements
- * in a terrain, such as trees and leaves.
+ * The Flora class is responsible for creating the flora elements of the terrain,
+ * such as trees, leaves and fruits.
  * <p>
- *      The generated elements are based on a calculated height
- *      provided by a given function and thresholds for randomness to determine element
- *      placement.
+ *      Where trees are planted, and which cells of their foliage hold leaves and fruits,
+ *      is decided by the engine-independent {@link WorldGenerator}.
+ *      This class only turns the generated trees of a chunk into GameObjects, and hands each of them
+ *      to the chunk as it is created, so the only allocations are the objects themselves
+ *      and their positions.
+ * </p>
+ * <p>
+ *      It holds no per-call state, so chunks may be turned into GameObjects concurrently
+ *      on different threads.
  * </p>
  *
  * @author Noam Kimhi
@@ -35,29 +37,22 @@ public class Flora {
      */
     public static final String FRUIT_TAG = "Fruit";
 
-    // Private constants
-    private static final double TREE_PLANTING_THRESHOLD = 0.075; /* Probability to plant a tree */
-    private static final double LEAF_PLACEMENT_THRESHOLD = 0.65; /* Probability to place a leaf */
-    private static final double FRUIT_PLACEMENT_THRESHOLD = 0.05; /* Probability to place a fruit */
-    private static final int FOLIAGE_HEIGHT = 8; /* Number of rows of leaves */
-    private static final int FOLIAGE_WIDTH = 8; /* Number of columns of leaves */
-
+    /**
+     * A constant representing the tag of tree trunks, the only part of a tree that blocks movement.
+     */
+    public static final String TRUNK_TAG = "trunk";
 
     // Private final fields
     private final float fruitRespawnCycleLength; /* Time in seconds for a fruit to respawn */
-    private final int seed; /* Seed for random number generation */
-    private final UnaryOperator<Float> groundHeightAtX; /* Function to calculate ground height */
     private final Consumer<Double> fruitCollisionCallback; /* Callback for fruit collision */
-
-    // Private fields
-    private final Random random; /* Random number generator */
+    private final FruitStateStore fruitStates; /* World-level store of eaten fruits */
+    private final boolean bakeCanopies; /* Whether leaves are baked into a single canopy per tree */
+    private final WorldOrigin origin; /* The origin of the game's coordinates within the world */
 
     /**
-     * Constructs a new Flora instance responsible for creating and managing
-     * the placement of flora elements (trees, leaves and fruits) in a terrain.
+     * Constructs a new Flora instance responsible for creating
+     * the flora elements (trees, leaves and fruits) of the terrain.
      *
-     * @param groundHeightAtX A function that calculates the ground height for a given
-     *                        x-coordinate, used to determine where flora should be placed.
      * @param fruitCollisionCallback A callback function to be called when a fruit collides with
      *                               another object.
      *                               The function should accept a double representing the x-coordinate
@@ -67,145 +62,84 @@ public class Flora {
      *                               The function should not be null.
      * @param fruitRespawnCycleLength The time in seconds it takes for
      *                                a fruit to respawn after being collected.
-     * @param seed The seed used for random number generation.
+     * @param fruitStates The world-level store that remembers eaten fruits,
+     *                    consulted whenever a fruit is created.
+     * @param bakeCanopies If {@code true}, the leaves of each tree are baked into a single cached
+     *                     canopy image instead of being created as separate GameObjects.
+     *                     Only fruits remain individual objects.
+     * @param origin The origin of the game's coordinates within the world, relative to which the generated
+     *               trees are placed.
      */
     public Flora(
-            UnaryOperator<Float> groundHeightAtX,
-            Consumer<Double> fruitCollisionCallback,
-            float fruitRespawnCycleLength, int seed
+            Consumer<Double> fruitCollisionCallback, float fruitRespawnCycleLength,
+            FruitStateStore fruitStates, boolean bakeCanopies, WorldOrigin origin
     ) {
         this.fruitRespawnCycleLength = fruitRespawnCycleLength;
-        this.seed = seed;
-        this.groundHeightAtX = groundHeightAtX;
+        this.fruitStates = fruitStates;
+        this.bakeCanopies = bakeCanopies;
         this.fruitCollisionCallback = fruitCollisionCallback;
-        this.random = new Random();
+        this.origin = origin;
     }
 
     /**
-     * Determines whether a tree should be planted based on a random threshold.
+     * Creates the foliage (leaves, or a baked canopy, and fruits) of a generated tree.
      *
-     * @return {@code true} if we should plant the tree, otherwise {@code false}.
-     */
-    private boolean shouldPlantTree() {
-        return random.nextDouble(0, 1) < TREE_PLANTING_THRESHOLD;
-    }
-
-    /**
-     * Determines whether a leaf should be added based on a random threshold.
-     *
-     * @return {@code true} if we should add the leaf, otherwise {@code false}.
-     */
-    private boolean shouldAddLeaf() {
-        return random.nextDouble(0, 1) < LEAF_PLACEMENT_THRESHOLD;
-    }
-
-    /**
-     * Determines whether a fruit should be added at the given position based on
-     * the position of the trunk and a random threshold.
-     *
-     * @param trunkXPos The x-coordinate position of the tree trunk.
-     * @param fruitX The x-coordinate position of the fruit being evaluated.
-     * @return {@code true} if a fruit should be added based on the conditions, otherwise {@code false}.
-     */
-    private boolean shouldAddFruit(int trunkXPos, int fruitX) {
-        return fruitX != trunkXPos && random.nextDouble(0, 1) < FRUIT_PLACEMENT_THRESHOLD;
-    }
-
-    /**
-     * Places a leaf or fruit at the specified position based on certain conditions.
-     * <p>
-     *     This method checks whether a leaf should be added based on a threshold.
-     *     If a leaf is added, it creates a new Leaf object at the specified position.
-     * </p>
-     * <p>
-     *     If a leaf is not added, it checks if a fruit should be placed based on the trunk's x-coordinate.
-     *     If so, it creates a new Fruit object at the specified position.
-     * </p>
-     * @param foliage The list of foliage (leaves and fruits) to which the new object will be added.
-     * @param topLeftCorner The top-left corner position where the leaf or fruit will be placed.
-     * @param trunkXPos The x-coordinate position of the tree trunk,
-     *                  used to determine if a fruit should be placed.
-     * @param objX The x-coordinate position of the object being placed,
+     * @param tree The generated tree.
+     * @param addToChunk A function for adding a GameObject to the chunk at a specified layer.
+     * @param leafLayer The layer of the leaves, or of the baked canopy.
+     * @param fruitLayer The layer of the fruits.
      */
-    private void placeLeafOrFruit(
-         List<GameObject> foliage, Vector2 topLeftCorner, int trunkXPos, int objX
+    private void createFoliage(
+            TreeData tree, ObjIntConsumer<GameObject> addToChunk, int leafLayer, int fruitLayer
     ) {
-        if (shouldAddLeaf()) { // Add the leaf to the leave list.
-            Leaf leafCreator = new Leaf();
-            GameObject leaf = leafCreator.create(topLeftCorner);
-            foliage.add(leaf);
-        } else if (shouldAddFruit(trunkXPos, objX)) { // Add a fruit if a leaf was not added.
-            Fruit fruit = new Fruit(topLeftCorner, fruitCollisionCallback, fruitRespawnCycleLength);
-            foliage.add(fruit);
-        }
-    }
-
-    /**
-     * Creates foliage (a list of leaves and fruits) for a trunk starting at a specified trunk position.
-     * <p>
-     *      The method generates an arrangement of leaves and fruits around the trunk based on
-     *      the configured foliage dimensions and positions them relative to the trunk.
-     * </p>
-     *
-     * @param trunkXPos The x-coordinate of the trunk position.
-     * @param trunkYPos The y-coordinate of the trunk's top position.
-     * @return An {@code List<GameObject>} containing the foliage
-     *         (leaves and fruits) created for the tree.
-     */
-    private List<GameObject> createFoliage(int trunkXPos, int trunkYPos) {
-        List<GameObject> foliage = new ArrayList<>();
-        int startingObjY = trunkYPos - (int) (FOLIAGE_HEIGHT * MathConstants.HALF_FACTOR) * Block.SIZE;
-        // Create foliage in a grid of size (FOLIAGE_HEIGHT x FOLIAGE_WIDTH).
-        for (int row = 0, objY = startingObjY; row < FOLIAGE_HEIGHT; row++, objY += Block.SIZE) {
-            int startingObjX = trunkXPos -
-                               (int) (FOLIAGE_WIDTH * MathConstants.HALF_FACTOR * Block.SIZE) -
-                               (int) (Block.SIZE * MathConstants.HALF_FACTOR);
-            // For each row of leaves, place a leaf at increasing X positions based on shouldAddLeaf's result.
-            for (int col = 0, objX = startingObjX; col < FOLIAGE_WIDTH; col++, objX += Block.SIZE) {
-                // Set the random seed based on the current position and the seed provided,
-                // to ensure consistent "random" behavior for each position.
-                random.setSeed(Objects.hash(objX, objY, seed));
-                placeLeafOrFruit(foliage, Vector2.of(objX, objY), trunkXPos, objX);
+        float foliageX = tree.foliageX(origin.getColumn());
+        for (int cell = 0; cell < WorldGenerator.FOLIAGE_WIDTH * WorldGenerator.FOLIAGE_HEIGHT; cell++) {
+            long cellBit = 1L << cell;
+            boolean isFruit = (tree.fruitMask() & cellBit) != 0;
+            if (!isFruit && (bakeCanopies || (tree.leafMask() & cellBit) == 0)) {
+                continue; // Nothing to create for the cell
             }
+            Vector2 cellPosition = Vector2.of(
+                    foliageX + (cell % WorldGenerator.FOLIAGE_WIDTH) * Block.SIZE,
+                    tree.foliageY() + (cell / WorldGenerator.FOLIAGE_WIDTH) * Block.SIZE
+            );
+            if (isFruit) {
+                addToChunk.accept(new Fruit(
+                        cellPosition, fruitCollisionCallback, fruitRespawnCycleLength,
+                        fruitStates, tree.column(), cell
+                ), fruitLayer);
+            } else {
+                addToChunk.accept(new Leaf().create(cellPosition), leafLayer);
+            }
+        }
+        if (bakeCanopies && tree.leafMask() != 0) { // Bake all the leaves into a single canopy
+            addToChunk.accept(Canopy.create(
+                    Vector2.of(foliageX, tree.foliageY()), tree.leafMask(), tree.canopyColor(),
+                    WorldGenerator.FOLIAGE_WIDTH, WorldGenerator.FOLIAGE_HEIGHT
+            ), leafLayer);
         }
-        return foliage;
     }
 
     /**
-     * Generates a collection of flora elements (trunks and their foliage) within a specified range
-     * of x-coordinates.
-     * <p>
-     *      This method calculates the positions where trees should be planted, creates their trunks,
-     *      and attaches foliage (leaves and fruits) to them.
-     * </p>
+     * Creates the flora elements (trunks and their foliage) of a generated chunk,
+     * and adds each of them to the chunk at the layer of its kind.
      *
-     * @param minX The minimum x-coordinate of the range.
-     * @param maxX The maximum x-coordinate of the range.
-     * @return A map where the key is a {@code GameObject} representing the trunk of a tree, and the
-     *         value is a {@code List<GameObject>} containing the foliage (leaves and fruits)
-     *         associated with that tree.
+     * @param chunk The generated chunk.
+     * @param addToChunk A function for adding a GameObject to the chunk at a specified layer.
+     * @param trunkLayer The layer of the trunks.
+     * @param leafLayer The layer of the leaves, or of the baked canopies.
+     * @param fruitLayer The layer of the fruits.
      */
-    public Map<GameObject, List<GameObject>> createInRange(int minX, int maxX) {
-        Map<GameObject, List<GameObject>> floraMap = new HashMap<>();
-
-        // Calculate the position of trunks based on Block.SIZE to ensure alignment.
-        int trunkXPos = LocationCalculator.getClosestMultToBlockSize(minX);
-        maxX = LocationCalculator.getClosestMultToBlockSize(maxX);
-
-        for (; trunkXPos < maxX; trunkXPos += Block.SIZE) { // Plant trees in the given range
-            // Set the random seed based on the trunk position and the seed provided,
-            // to ensure consistent "random" behavior for each trunk position.
-            random.setSeed(Objects.hash(trunkXPos, seed));
-            if (shouldPlantTree()) {
-                Vector2 trunkPosition = Vector2.of(trunkXPos, groundHeightAtX.apply((float) trunkXPos));
-                // Create a trunk at the calculated position.
-                GameObject trunk = Trunk.create(trunkPosition);
-                // Create foliage for the trunk and add it to the map.
-                floraMap.put(trunk, createFoliage(trunkXPos, (int) trunk.getTopLeftCorner().y()));
-            }
+    public void createTrees(
+            ChunkData chunk, ObjIntConsumer<GameObject> addToChunk,
+            int trunkLayer, int leafLayer, int fruitLayer
+    ) {
+        for (int i = 0; i < chunk.trees().size(); i++) {
+            TreeData tree = chunk.trees().get(i);
+            // Create a trunk standing on the ground, followed by its foliage.
+            Vector2 trunkPosition = Vector2.of(tree.trunkX(origin.getColumn()), tree.groundHeight());
+            addToChunk.accept(Trunk.create(trunkPosition, tree.trunkHeight(), tree.trunkColor()), trunkLayer);
+            createFoliage(tree, addToChunk, leafLayer, fruitLayer);
         }
-
-        return floraMap;
     }
-
 }
@@ -2,11 +2,15 @@ package pepse.world.trees;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.components.ScheduledTask;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.telemetry.FruitRespawnEvent;
+import pepse.telemetry.Telemetry;
+import pepse.util.TagInterest;
+import pepse.world.Avatar;
 import pepse.world.Block;
+import pepse.world.daynight.NightShade;
 
 import java.awt.Color;
 import java.util.function.Consumer;
@@ -23,10 +27,12 @@ class Fruit extends GameObject {
     // Private constants
     /* The amount of energy that the fruit provides to the avatar upon collision. */
     private static final double FRUIT_ENERGY_VALUE = 10;
+    /* A fruit is only eaten by the avatar, and ignores everything else */
+    private static final TagInterest COLLISION_INTEREST = TagInterest.of(Avatar.AVATAR_TAG);
     /* The base color of the fruit. */
     private static final Color BASE_FRUIT_COLOR = new Color(67, 45, 159);
-    /* The renderable object representing the fruit. */
-    private static final Renderable fruitRenderable = new OvalRenderable(BASE_FRUIT_COLOR);
+    /* The renderable object representing the fruit, following the darkness of the night. */
+    private static final Renderable fruitRenderable = NightShade.shade(BASE_FRUIT_COLOR, OvalRenderable::new);
 
     // Private fields
     /* The time interval (in seconds)
@@ -34,6 +40,9 @@ class Fruit extends GameObject {
     private final float respawnCycleLength;
     /* The action to perform when the fruit collides with an avatar. */
     private final Consumer<Double> collisionAction;
+    private final FruitStateStore fruitStates; /* The world-level store of fruit states */
+    private final int treeColumn; /* The column (in blocks) of the fruit's tree */
+    private final int cell; /* The index of the fruit's cell in the tree's foliage grid */
 
     /**
      * Constructs a new Fruit instance.
@@ -43,8 +52,14 @@ class Fruit extends GameObject {
      *                        the fruit collides with an avatar.
      * @param respawnCycleLength The time interval (in seconds) after which the fruit should reappear
      *                           following a collision or disappearance.
+     * @param fruitStates The world-level store that remembers eaten fruits across regenerations.
+     * @param treeColumn The column (in blocks) of the fruit's tree.
+     * @param cell The index of the fruit's cell in the tree's foliage grid.
      */
-    Fruit(Vector2 topLeftCorner, Consumer<Double> collisionAction, float respawnCycleLength) {
+    Fruit(
+            Vector2 topLeftCorner, Consumer<Double> collisionAction, float respawnCycleLength,
+            FruitStateStore fruitStates, int treeColumn, int cell
+    ) {
         super(
                 topLeftCorner,
                 Vector2.of(Block.SIZE, Block.SIZE),
@@ -53,12 +68,57 @@ class Fruit extends GameObject {
         this.setTag(Flora.FRUIT_TAG);
         this.respawnCycleLength = respawnCycleLength;
         this.collisionAction = collisionAction;
+        this.fruitStates = fruitStates;
+        this.treeColumn = treeColumn;
+        this.cell = cell;
+
+        // If the fruit was eaten before its tree was regenerated, keep it hidden until it respawns.
+        float remainingRespawnTime = fruitStates.remainingRespawnTime(treeColumn, cell);
+        if (remainingRespawnTime > 0) {
+            hideUntilRespawn(remainingRespawnTime);
+        }
+    }
+
+    /**
+     * Makes the fruit disappear, and schedules it to reappear after the given delay.
+     *
+     * @param respawnDelay The time (in seconds) after which the fruit reappears.
+     */
+    private void hideUntilRespawn(float respawnDelay) {
+        this.renderer().setRenderable(null);
+        // The respawn is an event of the world clock, so it follows the clock's pause and time scale
+        fruitStates.getClock().schedule(respawnDelay, this::respawn);
+    }
+
+    /**
+     * Makes the fruit reappear.
+     */
+    private void respawn() {
+        this.renderer().setRenderable(fruitRenderable);
+        if (Telemetry.isEnabled()) {
+            FruitRespawnEvent event = new FruitRespawnEvent();
+            event.treeColumn = treeColumn;
+            event.cell = cell;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns whether the fruit should collide with another object: only the avatar is of interest.
+     *
+     * @param other The other object.
+     * @return {@code true} if the other object is the avatar, {@code false} otherwise.
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return COLLISION_INTEREST.test(other);
     }
 
     /**
      * Handles the behavior of the fruit upon collision with another game object.
      * When the fruit collides with an avatar, it provides energy to the avatar,
      * disappears, and respawns after a specified delay.
+     * An eaten fruit that did not respawn yet is ignored.
      *
      * @param other The game object that the fruit collided with.
      * @param collision Information about the collision event between this fruit
@@ -67,15 +127,13 @@ class Fruit extends GameObject {
     @Override
     public void onCollisionEnter(GameObject other, Collision collision) {
         super.onCollisionEnter(other, collision);
+        if (fruitStates.isEaten(treeColumn, cell)) {
+            return;
+        }
         collisionAction.accept(FRUIT_ENERGY_VALUE);
-        // Make the fruit disappear
-        this.renderer().setRenderable(null);
-        // Make the fruit respawn after respawnCycleLength time has elapsed.
-        new ScheduledTask(
-                this,
-                this.respawnCycleLength,
-                false,
-                () -> this.renderer().setRenderable(fruitRenderable)
-        );
+        // Remember the fruit was eaten, so it stays eaten if its tree is regenerated
+        fruitStates.markEaten(treeColumn, cell, respawnCycleLength);
+        // Make the fruit disappear, and respawn after respawnCycleLength time has elapsed.
+        hideUntilRespawn(respawnCycleLength);
     }
 }
@@ -0,0 +1,326 @@
+package pepse.world.trees;
+
+import pepse.world.WorldClock;
+
+import java.util.Arrays;
+
+/**
+ * A world-level, memory-compact store of fruit states.
+ * <p>
+ *     Fruits are rebuilt from scratch whenever their tree is regenerated after eviction,
+ *     so the state of a fruit cannot live inside the {@link Fruit} object itself.
+ *     This store keeps that state keyed by world position: the column of the tree (in blocks)
+ *     and the index of the fruit's cell in the tree's foliage grid.
+ * </p>
+ * <p>
+ *     Only eaten fruits cost memory. Each tree that has at least one eaten fruit owns a slot of
+ *     a primitive open-addressing table: its column, a {@code long} bitset of its eaten fruits
+ *     (one bit per foliage cell), and a compact array of their respawn times, quantized to ticks
+ *     and ordered by the rank of their bits in the bitset. So an eaten fruit costs a single {@code int},
+ *     on top of the slot and the array header of its tree.
+ *     Fruits whose respawn time has passed are dropped lazily, either when they are queried or
+ *     when the table is rehashed.
+ * </p>
+ * <p>
+ *     The store is thread-safe, since fruits may be created by concurrent generations of the world.
+ * </p>
+ *
+ * @see Flora
+ * @see Fruit
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class FruitStateStore {
+
+    /**
+     * The maximal number of foliage cells per tree that the store can track.
+     */
+    public static final int MAX_CELLS_PER_TREE = Long.SIZE;
+
+    // Private constants
+    private static final int INITIAL_CAPACITY = 64; /* Initial table capacity, must be a power of 2 */
+    private static final float MAX_LOAD_FACTOR = 0.5f; /* Maximal ratio of used slots before rehashing */
+    private static final int EMPTY_TREE = Integer.MIN_VALUE; /* Marks an empty slot in the tree table */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L; /* Fibonacci hashing multiplier */
+    /* The resolution of the stored respawn times, whose ticks fit an int for years of world time */
+    private static final int TICKS_PER_SECOND = 10;
+    private static final int[] NO_TICKS = new int[0]; /* The respawn ticks of a tree with no eaten fruit */
+
+    // Private final fields
+    private final WorldClock clock; /* The world clock, whose time determines respawns */
+
+    // Private fields
+    /* Tree table: the column of each tree, the bitset of its eaten fruits, and their respawn ticks by rank */
+    private int[] treeColumns;
+    private long[] eatenMasks;
+    private int[][] respawnTicks;
+    private int treeCount; /* Number of used slots in the tree table */
+    private int fruitCount; /* Number of eaten fruits in the tree table */
+
+    /**
+     * Constructs a new, empty FruitStateStore.
+     *
+     * @param clock The world clock, whose time determines when eaten fruits respawn.
+     */
+    public FruitStateStore(WorldClock clock) {
+        this.clock = clock;
+        allocateTables(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Returns the world clock whose time determines when eaten fruits respawn.
+     *
+     * @return The world clock of the store.
+     */
+    WorldClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Returns whether the fruit at the given position is currently eaten.
+     *
+     * @param treeColumn The column (in blocks) of the fruit's tree.
+     * @param cell The index of the fruit's cell in the tree's foliage grid.
+     * @return {@code true} if the fruit was eaten and did not respawn yet, {@code false} otherwise.
+     */
+    public synchronized boolean isEaten(int treeColumn, int cell) {
+        return remainingRespawnTime(treeColumn, cell) > 0;
+    }
+
+    /**
+     * Returns the time left until the fruit at the given position respawns.
+     *
+     * @param treeColumn The column (in blocks) of the fruit's tree.
+     * @param cell The index of the fruit's cell in the tree's foliage grid.
+     * @return The time (in seconds) until the fruit respawns, or 0 if it is not eaten.
+     */
+    public synchronized float remainingRespawnTime(int treeColumn, int cell) {
+        int slot = findTreeSlot(treeColumn);
+        if (treeColumns[slot] == EMPTY_TREE || (eatenMasks[slot] & (1L << cell)) == 0) {
+            return 0;
+        }
+        float remaining = remainingTime(respawnTicks[slot][rank(eatenMasks[slot], cell)]);
+        if (remaining <= 0) { // The fruit already respawned, so it is no longer needed
+            removeFruit(slot, cell);
+            return 0;
+        }
+        return remaining;
+    }
+
+    /**
+     * Marks the fruit at the given position as eaten.
+     *
+     * @param treeColumn The column (in blocks) of the fruit's tree.
+     * @param cell The index of the fruit's cell in the tree's foliage grid.
+     * @param respawnDelay The time (in seconds) after which the fruit respawns.
+     */
+    public synchronized void markEaten(int treeColumn, int cell, float respawnDelay) {
+        int slot = findTreeSlot(treeColumn);
+        if (treeColumns[slot] == EMPTY_TREE) {
+            if (treeCount + 1 > treeColumns.length * MAX_LOAD_FACTOR) {
+                rehash();
+                slot = findTreeSlot(treeColumn);
+            }
+            treeColumns[slot] = treeColumn;
+            respawnTicks[slot] = NO_TICKS;
+            treeCount++;
+        }
+        int tick = (int) Math.ceil((clock.getTime() + respawnDelay) * TICKS_PER_SECOND);
+        long bit = 1L << cell;
+        int rank = rank(eatenMasks[slot], cell);
+        if ((eatenMasks[slot] & bit) != 0) { // Eaten again before it respawned
+            respawnTicks[slot][rank] = tick;
+            return;
+        }
+        // Insert the tick at the rank of the fruit's bit, in an array that stays exactly as long as needed
+        int[] ticks = respawnTicks[slot];
+        int[] grown = new int[ticks.length + 1];
+        System.arraycopy(ticks, 0, grown, 0, rank);
+        grown[rank] = tick;
+        System.arraycopy(ticks, rank, grown, rank + 1, ticks.length - rank);
+        respawnTicks[slot] = grown;
+        eatenMasks[slot] |= bit;
+        fruitCount++;
+    }
+
+    /**
+     * Visits an eaten fruit of the store.
+     *
+     * @author Noam Kimhi
+     * @author Or Forshmit
+     */
+    @FunctionalInterface
+    public interface EatenFruitVisitor {
+
+        /**
+         * Visits an eaten fruit.
+         *
+         * @param treeColumn The column (in blocks) of the fruit's tree.
+         * @param cell The index of the fruit's cell in the tree's foliage grid.
+         * @param remainingRespawnTime The time (in seconds) until the fruit respawns.
+         */
+        void visit(int treeColumn, int cell, float remainingRespawnTime);
+    }
+
+    /**
+     * Visits every fruit that is currently eaten, e.g. to save the store.
+     * Fruits that already respawned are skipped.
+     *
+     * @param visitor The visitor of the eaten fruits.
+     */
+    public synchronized void forEachEaten(EatenFruitVisitor visitor) {
+        for (int slot = 0; slot < treeColumns.length; slot++) {
+            if (treeColumns[slot] == EMPTY_TREE) {
+                continue;
+            }
+            long mask = eatenMasks[slot];
+            for (int rank = 0; mask != 0; rank++, mask &= mask - 1) {
+                float remaining = remainingTime(respawnTicks[slot][rank]);
+                if (remaining > 0) {
+                    visitor.visit(treeColumns[slot], Long.numberOfTrailingZeros(mask), remaining);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of fruits that are currently tracked by the store.
+     * <p>
+     *     Fruits that already respawned may still be counted until they are queried or
+     *     the store is rehashed.
+     * </p>
+     *
+     * @return The number of tracked fruits.
+     */
+    public synchronized int size() {
+        return fruitCount;
+    }
+
+    /**
+     * Allocates an empty table with the given capacity.
+     *
+     * @param capacity The capacity of the table, must be a power of 2.
+     */
+    private void allocateTables(int capacity) {
+        treeColumns = new int[capacity];
+        eatenMasks = new long[capacity];
+        respawnTicks = new int[capacity][];
+        Arrays.fill(treeColumns, EMPTY_TREE);
+        treeCount = 0;
+        fruitCount = 0;
+    }
+
+    /**
+     * Rebuilds the table, keeping only the trees with fruits that did not respawn yet.
+     * The capacity is doubled only if the live trees would still fill most of the table.
+     */
+    private void rehash() {
+        int[] oldTreeColumns = treeColumns;
+        long[] oldEatenMasks = eatenMasks;
+        int[][] oldRespawnTicks = respawnTicks;
+
+        int liveTrees = 0;
+        for (int slot = 0; slot < oldTreeColumns.length; slot++) {
+            if (oldTreeColumns[slot] != EMPTY_TREE && hasLiveFruit(oldRespawnTicks[slot])) {
+                liveTrees++;
+            }
+        }
+        int capacity = oldTreeColumns.length;
+        while (liveTrees + 1 > capacity * MAX_LOAD_FACTOR) {
+            capacity <<= 1;
+        }
+
+        allocateTables(capacity);
+        for (int oldSlot = 0; oldSlot < oldTreeColumns.length; oldSlot++) {
+            if (oldTreeColumns[oldSlot] == EMPTY_TREE || !hasLiveFruit(oldRespawnTicks[oldSlot])) {
+                continue;
+            }
+            // Move the tree as is: its fruits that already respawned are dropped when they are queried
+            int slot = findTreeSlot(oldTreeColumns[oldSlot]);
+            treeColumns[slot] = oldTreeColumns[oldSlot];
+            eatenMasks[slot] = oldEatenMasks[oldSlot];
+            respawnTicks[slot] = oldRespawnTicks[oldSlot];
+            treeCount++;
+            fruitCount += oldRespawnTicks[oldSlot].length;
+        }
+    }
+
+    /**
+     * Returns whether any of the given respawn ticks is still in the future.
+     *
+     * @param ticks The respawn ticks of a tree's eaten fruits.
+     * @return {@code true} if a fruit of the tree did not respawn yet, {@code false} otherwise.
+     */
+    private boolean hasLiveFruit(int[] ticks) {
+        for (int tick : ticks) {
+            if (remainingTime(tick) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forgets an eaten fruit of a tree, shrinking the tree's respawn ticks.
+     *
+     * @param slot The slot of the fruit's tree.
+     * @param cell The index of the fruit's cell in the tree's foliage grid.
+     */
+    private void removeFruit(int slot, int cell) {
+        int rank = rank(eatenMasks[slot], cell);
+        int[] ticks = respawnTicks[slot];
+        int[] shrunk = ticks.length == 1 ? NO_TICKS : new int[ticks.length - 1];
+        System.arraycopy(ticks, 0, shrunk, 0, rank);
+        System.arraycopy(ticks, rank + 1, shrunk, rank, ticks.length - rank - 1);
+        respawnTicks[slot] = shrunk;
+        eatenMasks[slot] &= ~(1L << cell);
+        fruitCount--;
+    }
+
+    /**
+     * Returns the time left until a respawn tick.
+     *
+     * @param tick The respawn tick.
+     * @return The time (in seconds) until the tick, negative if it passed.
+     */
+    private float remainingTime(int tick) {
+        return (float) ((double) tick / TICKS_PER_SECOND - clock.getTime());
+    }
+
+    /**
+     * Returns the rank of a cell's bit in a tree's bitset, i.e. the number of eaten fruits before it,
+     * which is the index of the fruit's respawn tick.
+     *
+     * @param mask The bitset of the tree's eaten fruits.
+     * @param cell The index of the cell in the tree's foliage grid.
+     * @return The rank of the cell's bit.
+     */
+    private static int rank(long mask, int cell) {
+        return Long.bitCount(mask & ((1L << cell) - 1));
+    }
+
+    /**
+     * Finds the slot of the given tree column in the tree table.
+     *
+     * @param treeColumn The tree column to look for.
+     * @return The slot holding the tree column, or the empty slot where it should be inserted.
+     */
+    private int findTreeSlot(int treeColumn) {
+        int mask = treeColumns.length - 1;
+        int slot = hash(treeColumn) & mask;
+        while (treeColumns[slot] != EMPTY_TREE && treeColumns[slot] != treeColumn) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Spreads the bits of the given key, so that consecutive keys land in distant slots.
+     *
+     * @param key The key to hash.
+     * @return The hash of the key.
+     */
+    private static int hash(long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> Integer.SIZE);
+    }
+}
@@ -7,6 +7,7 @@ import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
 import pepse.world.Block;
+import pepse.world.daynight.NightShade;
 
 import java.awt.Color;
 import java.util.Random;
@@ -20,6 +21,11 @@ import java.util.Random;
  */
 class Leaf {
 
+    /**
+     * The base color of the leaves, shared with baked canopies.
+     */
+    static final Color BASE_LEAF_COLOR = new Color(50, 200, 30);
+
     // Private constants
     private static final float INITIAL_LEAF_ANGLE = -10; /* The initial angle of the leaf */
     private static final float FINAL_LEAF_ANGLE = 10; /* The final angle of the leaf */
@@ -27,8 +33,6 @@ class Leaf {
     private static final float LEAF_TRANSITION_TIME_IN_SECONDS = 1.5f;
     /* The delay bound for the scheduled tasks */
     private static final float SCHEDULED_TASK_DELAY_BOUND = 2;
-    /* The base color of the leaf */
-    private static final Color BASE_LEAF_COLOR = new Color(50, 200, 30);
     /* The growth factor for the leaf dimensions */
     private static final Vector2 DIMENSIONS_GROWTH = Vector2.of(3, 3);
     /* The dimensions of the leaf */
@@ -96,13 +100,14 @@ class Leaf {
      * Creates a new leaf GameObject at the specified position.
      *
      * @param position The top-left corner of the newly created leaf GameObject.
-     * @return A GameObject representing a leaf with predefined size and color.
+     * @return A GameObject representing a leaf with predefined size and color,
+     *         which follows the darkness of the night.
      */
     GameObject create(Vector2 position) {
         GameObject leaf =  new GameObject(
                 position,
                 dimensions,
-                new RectangleRenderable(ColorSupplier.approximateColor(BASE_LEAF_COLOR))
+                NightShade.shade(ColorSupplier.approximateColor(BASE_LEAF_COLOR), RectangleRenderable::new)
         );
 
         this.leaf = leaf;
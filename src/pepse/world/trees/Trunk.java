@@ -3,17 +3,22 @@ package pepse.world.trees;
 import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
 import pepse.world.Block;
+import pepse.world.daynight.NightShade;
+import pepse.world.gen.WorldGenerator;
 
 import java.awt.Color;
-import java.util.Random;
 
 /**
  * The Trunk class is responsible for creating tree trunks in a game environment.
- * Tree trunks are vertical structures composed of stacked blocks, and their height is generated
- * randomly within a predefined range.
+ * Tree trunks are vertical structures whose height is decided by the world generator.
+ * <p>
+ *     Trunks are colored from a small palette of approximations of the trunk color,
+ *     shared by all the trunks, and picked by the generated color index of each tree.
+ * </p>
  *
  * @author Noam Kimhi
  * @author Or Forshmit
@@ -21,40 +26,54 @@ import java.util.Random;
 class Trunk {
 
     // Private constants
-    private static final int MIN_TREE_HEIGHT = 4; /* Minimum tree height in blocks */
-    private static final int MAX_TREE_HEIGHT = 10; /* Maximum tree height in blocks */
     private static final int TRUNK_COLOR_DELTA = 15; /* Maximum color difference between trunks */
     /* Base color of tree trunks */
     private static final Color BASE_TRUNK_COLOR = new Color(100, 50, 20);
+    /* Renderables of approximations of the trunk color, shared by all the trunks */
+    private static final Renderable[] trunkRenderables = createTrunkRenderables();
 
     /**
      * Private constructor to prevent instantiation of the Trunk class.
      */
     private Trunk() {}
 
+    /**
+     * Creates the shared renderables of the trunks, one for every generated color index,
+     * each following the darkness of the night.
+     *
+     * @return The shared renderables.
+     */
+    private static Renderable[] createTrunkRenderables() {
+        Renderable[] renderables = new Renderable[WorldGenerator.TRUNK_COLOR_VARIANTS];
+        for (int i = 0; i < renderables.length; i++) {
+            renderables[i] = NightShade.shade(
+                    ColorSupplier.approximateColor(BASE_TRUNK_COLOR, TRUNK_COLOR_DELTA),
+                    RectangleRenderable::new
+            );
+        }
+        return renderables;
+    }
+
     /**
      * Creates a GameObject representing a tree trunk at the specified position.
-     * The height of the trunk is determined randomly within a predefined range,
-     * and the trunk is rendered as a rectangular object with a fixed color.
+     * The trunk is rendered as a rectangular object with one of the shared trunk colors.
      * <p>
      * The created trunk object is immovable and prevents intersections from any direction.
      * </p>
      *
-     * @param position The bottom-center position (x, y) where the trunk should be created.
+     * @param position The bottom-left position (x, y) where the trunk should be created.
      *                 The trunk will extend upwards from this position.
+     * @param treeHeight The height of the trunk in pixels.
+     * @param colorIndex The generated color index of the trunk,
+     *                   in [0, {@link WorldGenerator#TRUNK_COLOR_VARIANTS}).
      * @return A GameObject representing the created tree trunk with specified properties.
      */
-     static GameObject create(Vector2 position) {
-         Random random = new Random((long) position.x());
-         float treeHeight = random.nextInt(MIN_TREE_HEIGHT, MAX_TREE_HEIGHT) * Block.SIZE;
+     static GameObject create(Vector2 position, float treeHeight, int colorIndex) {
          Vector2 topLeftCorner = Vector2.of(position.x(), position.y() - treeHeight);
          Vector2 dimensions = Vector2.of(Block.SIZE, treeHeight);
 
-         GameObject trunk = new GameObject(
-                 topLeftCorner,
-                 dimensions,
-                 new RectangleRenderable(ColorSupplier.approximateColor(BASE_TRUNK_COLOR, TRUNK_COLOR_DELTA))
-         );
+         GameObject trunk = new GameObject(topLeftCorner, dimensions, trunkRenderables[colorIndex]);
+         trunk.setTag(Flora.TRUNK_TAG);
 
          // Nothing can move/intersect with the trunk
          trunk.physics().preventIntersectionsFromDirection(Vector2.ZERO);
@@ -0,0 +1,321 @@
+package pepse.world.weather;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import pepse.util.ColorSupplier;
+import pepse.util.LocationCalculator;
+import pepse.util.MathConstants;
+import pepse.world.Block;
+import pepse.world.daynight.NightShade;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Represents a Cloud game object composed of multiple blocks.
+ * The cloud moves horizontally across a range and can pour raindrops into a {@link RainParticles} system.
+ * Once it left its range, the cloud should be retired by its owner.
+ * <p>
+ *     The cloud is a single rigid GameObject: its blocks are baked into one image,
+ *     and their offsets from the cloud's top-left corner are kept in primitive arrays.
+ *     Moving a cloud therefore costs a single update per frame, regardless of its number of blocks,
+ *     and the blocks can never drift apart.
+ * </p>
+ *
+ * @see WeatherScheduler
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class Cloud extends GameObject {
+
+    // Private Constants
+    private static final double RAIN_CREATION_PROBABILITY = 0.4; /* chance of raindrop creation */
+    private static final float DRIZZLE_RATE = 1.5f; /* Raindrops per block per second while raining */
+    /* The horizontal movement speed of the cloud in pixels per second (3 pixels per frame at 60 FPS) */
+    private static final float CLOUD_X_VELOCITY = 180;
+    private static final String CLOUD_TAG = "cloud"; /* The tag for cloud GameObjects */
+    /* The base color of the cloud */
+    private static final Color BASE_CLOUD_COLOR = new Color(255, 255, 255);
+
+    // 2 variations of cloud shapes
+    private static final List<List<Boolean>> blockPositionsCloudOne = List.of( /* Cloud shape 1 - (4x11) */
+            List.of(false, true, true, false, false, false, true, true, true, true, false),
+            List.of(true, true, true, true, false, true, true, true, true, true, true),
+            List.of(true, true, true, true, true, true, true, true, true, true, true),
+            List.of(false, true, true, true, true, true, true, true, true, true, false)
+    );
+    private static final List<List<Boolean>> blockPositionsCloudTwo = List.of( /* Cloud shape 2 - (3x8) */
+            List.of(false, false, false, true, true, true, false, false),
+            List.of(false, true, true, true, true, true, true, false),
+            List.of(true, true, true, true, true, true, true, true)
+    );
+    /* The number of blocks of each shape, known before a cloud is created */
+    private static final int CLOUD_ONE_BLOCK_COUNT = countBlocks(blockPositionsCloudOne);
+    private static final int CLOUD_TWO_BLOCK_COUNT = countBlocks(blockPositionsCloudTwo);
+
+    // Private final fields
+    private final float[] blockCenterOffsetsX; /* The x offsets of the block centers from the top-left */
+    private final float[] blockCenterOffsetsY; /* The y offsets of the block centers from the top-left */
+    private final float maxX; /* The x-coordinate at which the cloud left its range */
+    private final boolean isShapeOne; /* Whether the cloud has the first shape, or the second one */
+    private final RainParticles rain; /* The particle system the cloud pours its rain into */
+    private final Random random; /* The random number generator used for rain */
+
+    // Private fields
+    private boolean isRaining; /* Whether the cloud pours rain continuously */
+    private float pendingDrizzle; /* Raindrops owed by continuous rain, carried between frames */
+
+    /**
+     * Constructs a Cloud with the given shape, baked into a single image.
+     *
+     * @param blockPositions A list of lists representing the positions of blocks in the cloud.
+     * @param startingX The x-coordinate of the cloud's top-left corner when it enters its range.
+     * @param maxX The maximum x-coordinate the cloud can be in, before it left its range.
+     * @param height The y-coordinate of the cloud's top-left corner.
+     * @param rain The particle system the cloud pours its rain into.
+     */
+    private Cloud(
+            List<List<Boolean>> blockPositions, float startingX, float maxX, float height, RainParticles rain
+    ) {
+        super(
+                Vector2.of(startingX, height),
+                Vector2.of(blockPositions.getFirst().size(), blockPositions.size()).mult(Block.SIZE),
+                null
+        );
+        this.maxX = maxX;
+        this.isShapeOne = blockPositions == blockPositionsCloudOne;
+        this.rain = rain;
+        this.random = new Random();
+
+        int blockCount = blockCount(isShapeOne);
+        this.blockCenterOffsetsX = new float[blockCount];
+        this.blockCenterOffsetsY = new float[blockCount];
+        renderer().setRenderable(bake(blockPositions));
+
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        setTag(CLOUD_TAG);
+        // The whole cloud moves as one object across the screen
+        transform().setVelocityX(CLOUD_X_VELOCITY);
+    }
+
+    /**
+     * Counts the blocks of a cloud shape.
+     *
+     * @param blockPositions A list of lists representing the positions of blocks in the cloud.
+     * @return The number of blocks in the shape.
+     */
+    private static int countBlocks(List<List<Boolean>> blockPositions) {
+        int blockCount = 0;
+        for (List<Boolean> row : blockPositions) {
+            for (boolean isBlock : row) {
+                blockCount += isBlock ? 1 : 0;
+            }
+        }
+        return blockCount;
+    }
+
+    /**
+     * Returns the number of blocks of a cloud shape, so a budget can be checked before the cloud is created
+     * (and its image baked).
+     *
+     * @param isShapeOne Whether the shape is the first one, or the second one.
+     * @return The number of blocks in the shape.
+     */
+    public static int blockCount(boolean isShapeOne) {
+        return isShapeOne ? CLOUD_ONE_BLOCK_COUNT : CLOUD_TWO_BLOCK_COUNT;
+    }
+
+    /**
+     * Bakes the cloud's blocks into a single image, of a pixel per block, and records the offset
+     * of each block's center. The image is scaled up to the cloud's size when rendered,
+     * so its darkened copies for the night cost a few hundred bytes each.
+     *
+     * @param blockPositions A list of lists representing the positions of blocks in the cloud.
+     * @return A renderable of the baked cloud, which follows the darkness of the night.
+     */
+    private Renderable bake(List<List<Boolean>> blockPositions) {
+        BufferedImage image = new BufferedImage(
+                blockPositions.getFirst().size(), blockPositions.size(), BufferedImage.TYPE_INT_ARGB
+        );
+        int block = 0;
+        // Draw cloud blocks according to the blockPositions list
+        for (int row = 0; row < blockPositions.size(); row++) {
+            for (int col = 0; col < blockPositions.get(row).size(); col++) {
+                if (blockPositions.get(row).get(col)) { // If the position is true, draw a block
+                    image.setRGB(col, row, ColorSupplier.approximateMonoColor(BASE_CLOUD_COLOR).getRGB());
+                    blockCenterOffsetsX[block] = (col + MathConstants.HALF_FACTOR) * Block.SIZE;
+                    blockCenterOffsetsY[block] = (row + MathConstants.HALF_FACTOR) * Block.SIZE;
+                    block++;
+                }
+            }
+        }
+        return NightShade.shade(image);
+    }
+
+    /**
+     * Creates a cloud within the specified X-coordinate range.
+     * <p>
+     *      The method calculates the appropriate starting and ending positions
+     *      based on block sizes, so that the cloud enters the range from its left side
+     *      and leaves it once it fully passed the range's right side.
+     * </p>
+     *
+     * @param minX The minimum X-coordinate of the range in which the cloud is to be created.
+     * @param maxX The maximum X-coordinate the cloud can be in.
+     * @param height The y-coordinate of the cloud's top-left corner.
+     * @param rain The particle system the cloud pours its rain into.
+     * @param isShapeOne Whether the cloud has the first shape, or the second one.
+     * @return The created cloud.
+     */
+    public static Cloud createInRange(
+            int minX, int maxX, float height, RainParticles rain, boolean isShapeOne
+    ) {
+        List<List<Boolean>> blockPositions = isShapeOne ? blockPositionsCloudOne : blockPositionsCloudTwo;
+        int cloudWidth = blockPositions.getFirst().size() * Block.SIZE;
+        // Set up a starting X position for the cloud
+        int startingX = LocationCalculator.getClosestMultToBlockSize(minX) - cloudWidth;
+
+        return new Cloud(blockPositions, startingX, rangeEnd(blockPositions, maxX), height, rain);
+    }
+
+    /**
+     * Recreates a cloud that was already crossing its range, e.g. when a saved game is resumed.
+     *
+     * @param isShapeOne Whether the cloud has the first shape, or the second one.
+     * @param x The x-coordinate of the cloud's top-left corner.
+     * @param maxX The maximum X-coordinate the cloud can be in.
+     * @param height The y-coordinate of the cloud's top-left corner.
+     * @param rain The particle system the cloud pours its rain into.
+     * @return The recreated cloud.
+     */
+    public static Cloud restoreInRange(
+            boolean isShapeOne, float x, int maxX, float height, RainParticles rain
+    ) {
+        List<List<Boolean>> blockPositions = isShapeOne ? blockPositionsCloudOne : blockPositionsCloudTwo;
+        return new Cloud(blockPositions, x, rangeEnd(blockPositions, maxX), height, rain);
+    }
+
+    /**
+     * Returns the x-coordinate at which a cloud fully passed the right side of its range.
+     *
+     * @param blockPositions The shape of the cloud.
+     * @param maxX The maximum X-coordinate the cloud can be in.
+     * @return The x-coordinate at which the cloud left its range.
+     */
+    private static int rangeEnd(List<List<Boolean>> blockPositions, int maxX) {
+        int cloudWidth = blockPositions.getFirst().size() * Block.SIZE;
+        return LocationCalculator.getClosestMultToBlockSize(maxX) + cloudWidth;
+    }
+
+    /**
+     * Returns whether the cloud has the first of the two cloud shapes.
+     *
+     * @return {@code true} if the cloud has the first shape, {@code false} if it has the second one.
+     */
+    public boolean isShapeOne() {
+        return isShapeOne;
+    }
+
+    /**
+     * Returns the number of blocks that make up the cloud.
+     *
+     * @return The number of blocks in the cloud.
+     */
+    public int getBlockCount() {
+        return blockCenterOffsetsX.length;
+    }
+
+    /**
+     * Returns whether the cloud fully passed the right side of its range, and should be retired.
+     *
+     * @return {@code true} if the cloud left its range, {@code false} otherwise.
+     */
+    public boolean hasLeftRange() {
+        return getTopLeftCorner().x() > maxX;
+    }
+
+    /**
+     * Sets whether the cloud pours rain continuously.
+     *
+     * @param isRaining {@code true} to make the cloud drizzle every frame, {@code false} to stop it.
+     */
+    public void setRaining(boolean isRaining) {
+        this.isRaining = isRaining;
+        this.pendingDrizzle = 0;
+    }
+
+    /**
+     * Returns whether the cloud pours rain continuously.
+     *
+     * @return {@code true} if the cloud is raining, {@code false} otherwise.
+     */
+    public boolean isRaining() {
+        return isRaining;
+    }
+
+    /**
+     * Spawns a raindrop from the center of the given block.
+     *
+     * @param topLeftCorner The current top-left corner of the cloud.
+     * @param block The index of the block.
+     * @return {@code true} if the drop was spawned, {@code false} if the particle system is full.
+     */
+    private boolean spawnDrop(Vector2 topLeftCorner, int block) {
+        return rain.spawn(
+                topLeftCorner.x() + blockCenterOffsetsX[block],
+                topLeftCorner.y() + blockCenterOffsetsY[block]
+        );
+    }
+
+    /**
+     * Creates rain droplets from the cloud's blocks based on a probabilistic chance.
+     * This method iterates through each block in the cloud and uses a random generator
+     * to decide whether to spawn a new raindrop originating from the block's center.
+     * Drops are spawned into the rain particle system, so a burst does not allocate.
+     *
+     * @param maxDrops The maximal number of drops the burst may spawn.
+     * @return The number of drops that were spawned.
+     */
+    public int burst(int maxDrops) {
+        Vector2 topLeftCorner = getTopLeftCorner();
+        int spawned = 0;
+        // For each cloud block, decide if it creates a raindrop based on the given probability
+        for (int block = 0; block < blockCenterOffsetsX.length && spawned < maxDrops; block++) {
+            if (random.nextDouble() < RAIN_CREATION_PROBABILITY && spawnDrop(topLeftCorner, block)) {
+                spawned++;
+            }
+        }
+        return spawned;
+    }
+
+    /**
+     * Pours the continuous rain owed for the given time, if the cloud is raining.
+     * Drops that do not fit in the given limit are dropped rather than postponed,
+     * so a cloud that was throttled does not pour a burst once the limit is lifted.
+     *
+     * @param deltaTime The time elapsed since the last frame in seconds.
+     * @param maxDrops The maximal number of drops that may be spawned.
+     * @return The number of drops that were spawned.
+     */
+    public int drizzle(float deltaTime, int maxDrops) {
+        if (!isRaining) {
+            return 0;
+        }
+        pendingDrizzle += DRIZZLE_RATE * blockCenterOffsetsX.length * deltaTime;
+        int wanted = (int) pendingDrizzle;
+        pendingDrizzle -= wanted;
+        Vector2 topLeftCorner = getTopLeftCorner();
+        int spawned = 0;
+        while (spawned < Math.min(wanted, maxDrops)
+               && spawnDrop(topLeftCorner, random.nextInt(blockCenterOffsetsX.length))) {
+            spawned++;
+        }
+        return spawned;
+    }
+
+}
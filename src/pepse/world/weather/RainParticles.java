@@ -0,0 +1,197 @@
+package pepse.world.weather;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.AllocationMonitor;
+import pepse.world.Block;
+import pepse.world.daynight.NightShade;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+
+/**
+ * A pooled particle system that simulates and renders all the raindrops in the game.
+ * <p>
+ *     Instead of creating a GameObject (with its own transition) for every raindrop,
+ *     the particle system keeps the position, velocity and opacity of each drop in primitive arrays
+ *     of a fixed capacity, and renders all of them from a single GameObject.
+ *     Live drops are packed at the start of the arrays; when a drop fades out, the last live drop
+ *     is moved into its slot, so slots are recycled without allocating.
+ * </p>
+ * <p>
+ *     Drops are positioned in camera coordinates, like the clouds that pour them.
+ * </p>
+ *
+ * @see Cloud
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class RainParticles extends GameObject {
+
+    // Private constants
+    private static final float DROP_SIZE = Block.SIZE / 3f; /* The size of a raindrop */
+    private static final float GRAVITY = 300; /* The gravitational acceleration of a raindrop */
+    private static final float RAINDROP_FALL_DURATION = 2; /* The duration of a raindrop's fall */
+    private static final float STARTING_OPACITY = 1; /* The starting opacity of a raindrop */
+    private static final String RAIN_TAG = "rain"; /* The tag for the rain GameObject */
+    private static final int OPACITY_LEVELS = 32; /* The number of distinct opacities drops are drawn with */
+    /* The color of a raindrop */
+    private static final Color RAIN_COLOR = new Color(4, 137, 241);
+    /* The color of a raindrop at every shade level of the night */
+    private static final Color[] rainColors = NightShade.darkenedColors(RAIN_COLOR);
+    /* Precomputed composites for each opacity level, so rendering does not allocate */
+    private static final Composite[] opacityComposites = createOpacityComposites();
+
+    // Private final fields
+    private final float[] dropX; /* The x-coordinate of the top-left corner of each drop */
+    private final float[] dropY; /* The y-coordinate of the top-left corner of each drop */
+    private final float[] dropVelocityY; /* The vertical velocity of each drop */
+    private final float[] dropOpacity; /* The opacity of each drop */
+
+    // Private fields
+    private int liveDrops; /* The number of live drops, all packed at the start of the arrays */
+
+    /**
+     * Constructs a new, empty rain particle system.
+     *
+     * @param windowDimensions The dimensions of the game window, which the rain covers.
+     * @param capacity The maximal number of drops that can be alive at the same time.
+     */
+    public RainParticles(Vector2 windowDimensions, int capacity) {
+        super(Vector2.ZERO, windowDimensions, null);
+        this.dropX = new float[capacity];
+        this.dropY = new float[capacity];
+        this.dropVelocityY = new float[capacity];
+        this.dropOpacity = new float[capacity];
+        renderer().setRenderable(new RainRenderable());
+        setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        setTag(RAIN_TAG);
+    }
+
+    /**
+     * Creates the composites used to draw drops at each opacity level.
+     *
+     * @return An array of composites, indexed by opacity level.
+     */
+    private static Composite[] createOpacityComposites() {
+        Composite[] composites = new Composite[OPACITY_LEVELS + 1];
+        for (int level = 0; level <= OPACITY_LEVELS; level++) {
+            float opacity = (float) level / OPACITY_LEVELS;
+            composites[level] = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity);
+        }
+        return composites;
+    }
+
+    /**
+     * Spawns a new raindrop, if there is a free slot for it.
+     *
+     * @param topLeftX The x-coordinate of the drop's top-left corner, in camera coordinates.
+     * @param topLeftY The y-coordinate of the drop's top-left corner, in camera coordinates.
+     * @return {@code true} if the drop was spawned, {@code false} if the particle system is full.
+     */
+    public boolean spawn(float topLeftX, float topLeftY) {
+        if (liveDrops == dropX.length) {
+            return false;
+        }
+        dropX[liveDrops] = topLeftX;
+        dropY[liveDrops] = topLeftY;
+        dropVelocityY[liveDrops] = 0;
+        dropOpacity[liveDrops] = STARTING_OPACITY;
+        liveDrops++;
+        return true;
+    }
+
+    /**
+     * Returns the number of drops that are currently alive.
+     *
+     * @return The number of live drops.
+     */
+    public int getLiveDrops() {
+        return liveDrops;
+    }
+
+    /**
+     * Returns the maximal number of drops that can be alive at the same time.
+     *
+     * @return The capacity of the particle system.
+     */
+    public int getCapacity() {
+        return dropX.length;
+    }
+
+    /**
+     * Moves all the live drops and fades them out.
+     * Drops that became fully transparent are removed, and their slots are recycled.
+     *
+     * @param deltaTime The time elapsed since the last frame in seconds.
+     */
+    @Override
+    public void update(float deltaTime) {
+        super.update(deltaTime);
+        AllocationMonitor.beginSection();
+        float fade = deltaTime * STARTING_OPACITY / RAINDROP_FALL_DURATION;
+        int drop = 0;
+        while (drop < liveDrops) {
+            dropOpacity[drop] -= fade;
+            if (dropOpacity[drop] <= 0) { // Recycle the slot by moving the last live drop into it
+                liveDrops--;
+                dropX[drop] = dropX[liveDrops];
+                dropY[drop] = dropY[liveDrops];
+                dropVelocityY[drop] = dropVelocityY[liveDrops];
+                dropOpacity[drop] = dropOpacity[liveDrops];
+                continue;
+            }
+            dropVelocityY[drop] += GRAVITY * deltaTime;
+            dropY[drop] += dropVelocityY[drop] * deltaTime;
+            drop++;
+        }
+        AllocationMonitor.endSection();
+    }
+
+    /**
+     * Renders all the live drops of the particle system at once.
+     *
+     * @author Noam Kimhi
+     * @author Or Forshmit
+     */
+    private class RainRenderable implements Renderable {
+
+        /**
+         * Draws every live drop as a small rectangle with its own opacity,
+         * in the rain's color darkened by the night.
+         *
+         * @param g The graphics to draw with.
+         * @param topLeftCorner The top-left corner of the particle system on the screen.
+         * @param dimensions The dimensions of the particle system on the screen.
+         * @param degreesCounterClockwise The rotation of the particle system (ignored).
+         * @param isFlippedHorizontally Whether the particle system is flipped horizontally (ignored).
+         * @param isFlippedVertically Whether the particle system is flipped vertically (ignored).
+         * @param opaqueness The opaqueness of the particle system (ignored, each drop has its own).
+         */
+        @Override
+        public void render(
+                Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double degreesCounterClockwise,
+                boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness
+        ) {
+            if (liveDrops == 0) {
+                return;
+            }
+            Composite originalComposite = g.getComposite();
+            g.setColor(rainColors[NightShade.level()]);
+            int size = Math.round(DROP_SIZE);
+            for (int drop = 0; drop < liveDrops; drop++) {
+                g.setComposite(opacityComposites[Math.round(dropOpacity[drop] * OPACITY_LEVELS)]);
+                g.fillRect(
+                        Math.round(topLeftCorner.x() + dropX[drop]),
+                        Math.round(topLeftCorner.y() + dropY[drop]),
+                        size, size
+                );
+            }
+            g.setComposite(originalComposite);
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package pepse.world.weather;
+
+import danogl.GameObject;
+import danogl.components.Component;
+import pepse.telemetry.RainBurstEvent;
+import pepse.telemetry.Telemetry;
+import pepse.util.AllocationMonitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+/**
+ * The WeatherScheduler spawns and retires clouds and their rain under global budgets.
+ * <p>
+ *     Clouds are spawned at random intervals and at random heights, cross the screen once,
+ *     and are retired once they left it. Some of them rain continuously, and all of them
+ *     pour a burst of rain on demand (e.g. whenever the avatar jumps).
+ * </p>
+ * <p>
+ *     Three budgets bound the cost of the weather:
+ *     the maximal number of live cloud blocks, the maximal number of live raindrops,
+ *     and the maximal number of objects (clouds or raindrops) spawned in a single frame.
+ *     When a budget is reached the weather degrades gracefully: new clouds are postponed
+ *     and rain gets thinner, but nothing already alive is removed early.
+ *     Every budget has a counter of its current usage and of the spawns it denied.
+ * </p>
+ *
+ * @see Cloud
+ * @see RainParticles
+ * @author Noam Kimhi
+ * @author Or Forshmit
+ */
+public class WeatherScheduler {
+
+    // Private constants
+    private static final float MIN_CLOUD_INTERVAL = 2; /* Minimal time between cloud spawns, in seconds */
+    private static final float MAX_CLOUD_INTERVAL = 6; /* Maximal time between cloud spawns, in seconds */
+    private static final float MIN_CLOUD_HEIGHT = 40; /* Minimal height of a cloud's top-left corner */
+    private static final float MAX_CLOUD_HEIGHT = 160; /* Maximal height of a cloud's top-left corner */
+    private static final double RAINING_CLOUD_PROBABILITY = 0.5; /* Chance that a new cloud rains */
+
+    // Private final fields
+    private final RainParticles rain; /* The particle system all clouds pour their rain into */
+    private final int cloudLayer; /* The layer clouds are added to */
+    private final int rangeWidth; /* The width of the range clouds cross, in camera coordinates */
+    private final int maxLiveCloudBlocks; /* Budget: maximal number of live cloud blocks */
+    private final int maxLiveDrops; /* Budget: maximal number of live raindrops */
+    private final int maxSpawnsPerFrame; /* Budget: maximal number of objects spawned per frame */
+    /* A BiConsumer function to add a GameObject to the game at a specified layer */
+    private final BiConsumer<GameObject, Integer> addToGame;
+    /* A BiConsumer function to remove a GameObject from the game at a specified layer */
+    private final BiConsumer<GameObject, Integer> removeFromGame;
+    private final List<Cloud> clouds; /* The live clouds */
+    private final Random random; /* The random number generator used for scheduling */
+
+    // Private fields
+    private float timeUntilNextCloud; /* The time left until the next cloud spawn attempt */
+    private int liveCloudBlocks; /* Counter: number of blocks in all live clouds */
+    private int spawnsThisFrame; /* Counter: number of objects spawned in the current frame */
+    private long deniedCloudSpawns; /* Counter: number of cloud spawns denied by the budgets */
+    private long deniedDropSpawns; /* Counter: number of raindrop spawns denied by the budgets */
+
+    /**
+     * Constructs a new WeatherScheduler.
+     *
+     * @param rain The particle system all clouds pour their rain into.
+     *             Its capacity is a hard limit on top of the raindrop budget.
+     * @param cloudLayer The layer clouds are added to.
+     * @param rangeWidth The width of the range clouds cross, in camera coordinates.
+     * @param maxLiveCloudBlocks The maximal number of cloud blocks that may be alive at once.
+     * @param maxLiveDrops The maximal number of raindrops that may be alive at once.
+     * @param maxSpawnsPerFrame The maximal number of objects (clouds or raindrops) spawned per frame.
+     * @param addToGame A BiConsumer function for adding a GameObject to the game at a specified layer.
+     * @param removeFromGame A BiConsumer function for removing
+     *                       a GameObject from the game at a specified layer.
+     */
+    public WeatherScheduler(
+            RainParticles rain, int cloudLayer, int rangeWidth,
+            int maxLiveCloudBlocks, int maxLiveDrops, int maxSpawnsPerFrame,
+            BiConsumer<GameObject, Integer> addToGame, BiConsumer<GameObject, Integer> removeFromGame
+    ) {
+        this.rain = rain;
+        this.cloudLayer = cloudLayer;
+        this.rangeWidth = rangeWidth;
+        this.maxLiveCloudBlocks = maxLiveCloudBlocks;
+        this.maxLiveDrops = Math.min(maxLiveDrops, rain.getCapacity());
+        this.maxSpawnsPerFrame = maxSpawnsPerFrame;
+        this.addToGame = addToGame;
+        this.removeFromGame = removeFromGame;
+        this.clouds = new ArrayList<>();
+        this.random = new Random();
+        this.timeUntilNextCloud = 0; // The first cloud appears right away
+    }
+
+    /**
+     * Returns the number of objects that may still be spawned in the current frame.
+     *
+     * @return The remaining spawn budget of the frame.
+     */
+    private int remainingSpawns() {
+        return maxSpawnsPerFrame - spawnsThisFrame;
+    }
+
+    /**
+     * Returns the number of raindrops that may still be spawned right now,
+     * considering both the live raindrop budget and the per-frame spawn budget.
+     *
+     * @return The number of raindrops that may be spawned.
+     */
+    private int allowedDrops() {
+        return Math.max(0, Math.min(remainingSpawns(), maxLiveDrops - rain.getLiveDrops()));
+    }
+
+    /**
+     * Spawns a new cloud, unless a budget does not allow it.
+     */
+    private void trySpawnCloud() {
+        if (remainingSpawns() <= 0) {
+            deniedCloudSpawns++;
+            return;
+        }
+        // The shape decides the cost, so the budget is checked before the cloud's image is baked
+        boolean isShapeOne = random.nextBoolean();
+        if (liveCloudBlocks + Cloud.blockCount(isShapeOne) > maxLiveCloudBlocks) {
+            deniedCloudSpawns++; // Try again on the next interval, once older clouds were retired
+            return;
+        }
+        float height = MIN_CLOUD_HEIGHT + random.nextFloat() * (MAX_CLOUD_HEIGHT - MIN_CLOUD_HEIGHT);
+        AllocationMonitor.beginContentWork();
+        Cloud cloud = Cloud.createInRange(0, rangeWidth, height, rain, isShapeOne);
+        cloud.setRaining(random.nextDouble() < RAINING_CLOUD_PROBABILITY);
+        clouds.add(cloud);
+        addToGame.accept(cloud, cloudLayer);
+        AllocationMonitor.endContentWork();
+        liveCloudBlocks += cloud.getBlockCount();
+        spawnsThisFrame++;
+    }
+
+    /**
+     * Retires the clouds that left their range.
+     */
+    private void retireClouds() {
+        for (int i = clouds.size() - 1; i >= 0; i--) {
+            Cloud cloud = clouds.get(i);
+            if (cloud.hasLeftRange()) {
+                AllocationMonitor.beginContentWork();
+                removeFromGame.accept(cloud, cloudLayer);
+                AllocationMonitor.endContentWork();
+                liveCloudBlocks -= cloud.getBlockCount();
+                clouds.remove(i);
+            }
+        }
+    }
+
+    /**
+     * Updates the weather: retires clouds that left the screen, spawns new clouds when it is time,
+     * and pours the continuous rain of raining clouds, all within the budgets.
+     * Should be called once per frame, before anything else in the frame may pour rain,
+     * since it starts a new per-frame spawn budget.
+     *
+     * @param deltaTime The time elapsed since the last frame in seconds.
+     */
+    public void update(float deltaTime) {
+        spawnsThisFrame = 0;
+        retireClouds();
+
+        timeUntilNextCloud -= deltaTime;
+        if (timeUntilNextCloud <= 0) {
+            trySpawnCloud();
+            timeUntilNextCloud = MIN_CLOUD_INTERVAL +
+                                 random.nextFloat() * (MAX_CLOUD_INTERVAL - MIN_CLOUD_INTERVAL);
+        }
+
+        for (int i = 0; i < clouds.size(); i++) {
+            Cloud cloud = clouds.get(i);
+            int allowed = allowedDrops();
+            int spawned = cloud.drizzle(deltaTime, allowed);
+            spawnsThisFrame += spawned;
+            if (allowed == 0 && cloud.isRaining()) {
+                deniedDropSpawns++;
+            }
+        }
+    }
+
+    /**
+     * Makes every live cloud pour a burst of rain, as long as the budgets allow it.
+     *
+     * @param deltaTime The time interval since the last invocation of this method (unused).
+     */
+    private void pourRainBurst(float deltaTime) {
+        RainBurstEvent event = Telemetry.isEnabled() ? new RainBurstEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        int spawned = 0, denied = 0;
+        for (int i = 0; i < clouds.size(); i++) {
+            Cloud cloud = clouds.get(i);
+            int allowed = allowedDrops();
+            if (allowed == 0) {
+                deniedDropSpawns++;
+                denied++;
+                continue;
+            }
+            int burst = cloud.burst(allowed);
+            spawnsThisFrame += burst;
+            spawned += burst;
+        }
+        if (event != null) {
+            event.clouds = clouds.size();
+            event.dropsSpawned = spawned;
+            event.deniedClouds = denied;
+            event.liveDrops = rain.getLiveDrops();
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns a component that makes every live cloud pour a burst of rain when it is updated.
+     * This method facilitates linking the rain creation logic to other components that may invoke it,
+     * e.g. the avatar's jump.
+     *
+     * @return A {@link Component} that represents the rain creation process of all clouds.
+     */
+    public Component pourRain() {
+        return this::pourRainBurst;
+    }
+
+    /**
+     * Recreates a cloud that was already crossing the screen, e.g. when a saved game is resumed.
+     * The budgets are not checked, since the cloud was already alive within them.
+     *
+     * @param isShapeOne Whether the cloud has the first shape, or the second one.
+     * @param x The x-coordinate of the cloud's top-left corner, in camera coordinates.
+     * @param height The y-coordinate of the cloud's top-left corner.
+     * @param isRaining Whether the cloud pours rain continuously.
+     */
+    public void restoreCloud(boolean isShapeOne, float x, float height, boolean isRaining) {
+        Cloud cloud = Cloud.restoreInRange(isShapeOne, x, rangeWidth, height, rain);
+        cloud.setRaining(isRaining);
+        clouds.add(cloud);
+        addToGame.accept(cloud, cloudLayer);
+        liveCloudBlocks += cloud.getBlockCount();
+    }
+
+    /**
+     * Returns the live clouds.
+     *
+     * @return An unmodifiable view of the live clouds.
+     */
+    public List<Cloud> getClouds() {
+        return Collections.unmodifiableList(clouds);
+    }
+
+    /**
+     * Returns the number of live clouds.
+     *
+     * @return The number of live clouds.
+     */
+    public int getLiveClouds() {
+        return clouds.size();
+    }
+
+    /**
+     * Returns the number of blocks in all the live clouds, which is bounded by the cloud block budget.
+     *
+     * @return The number of live cloud blocks.
+     */
+    public int getLiveCloudBlocks() {
+        return liveCloudBlocks;
+    }
+
+    /**
+     * Returns the number of live raindrops, which is bounded by the raindrop budget.
+     *
+     * @return The number of live raindrops.
+     */
+    public int getLiveDrops() {
+        return rain.getLiveDrops();
+    }
+
+    /**
+     * Returns the number of objects spawned in the last frame, which is bounded by the spawn budget.
+     *
+     * @return The number of objects spawned in the last frame.
+     */
+    public int getSpawnsThisFrame() {
+        return spawnsThisFrame;
+    }
+
+    /**
+     * Returns the number of cloud spawns that were denied because of the budgets.
+     *
+     * @return The number of denied cloud spawns.
+     */
+    public long getDeniedCloudSpawns() {
+        return deniedCloudSpawns;
+    }
+
+    /**
+     * Returns the number of times a cloud could not pour rain because of the budgets.
+     *
+     * @return The number of denied raindrop spawns.
+     */
+    public long getDeniedDropSpawns() {
+        return deniedDropSpawns;
+    }
+}